@@ -0,0 +1,85 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.BookDTO;
+import com.biblioteca.dto.BookSummary;
+import com.biblioteca.model.Author;
+import com.biblioteca.model.Book;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dados sintéticos com o formato dos registros reais (títulos, nomes e biografias de tamanho típico).
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Map<Long, Author> authors(int count) {
+        Map<Long, Author> authors = new LinkedHashMap<>();
+        for (long id = 1; id <= count; id++) {
+            Author author = new Author("Autor Sobrenome " + id, LocalDate.of(1900, 1, 1).plusDays(id * 97),
+                    "Brasileira", "Biografia resumida do autor " + id + ", com algumas frases sobre a obra e a carreira.");
+            author.setId(id);
+            author.setVersion(0L);
+            author.setAtualizadoEm(Instant.parse("2024-01-01T00:00:00Z"));
+            authors.put(id, author);
+        }
+        return authors;
+    }
+
+    static List<Book> books(int count, int authorsPerBook, Map<Long, Author> authors) {
+        List<Author> pool = new ArrayList<>(authors.values());
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = new Book("Título do livro número " + i, 100 + i % 500, i % 3 != 0,
+                    LocalDate.of(1950, 1, 1).plusDays(i * 13L), i % 4 == 0 ? null : "uploads/livro-" + i + ".pdf");
+            book.setId((long) i + 1);
+            book.setVersion(0L);
+            book.setAtualizadoEm(Instant.parse("2024-01-01T00:00:00Z"));
+            Set<Author> bookAuthors = new HashSet<>();
+            for (int a = 0; a < authorsPerBook; a++) {
+                bookAuthors.add(pool.get((i + a) % pool.size()));
+            }
+            book.setAuthors(bookAuthors);
+            book.setAutor(BookService.joinAuthorNames(bookAuthors));
+            books.add(book);
+        }
+        return books;
+    }
+
+    /**
+     * Linhas de GET /books (projeção {@link BookSummary}) correspondentes aos livros informados.
+     */
+    static List<BookSummary> summaries(List<Book> books) {
+        return books.stream()
+                .map(book -> new BookSummary(book.getId(), book.getTitulo(), book.getAutor(), book.getPaginas(),
+                        book.isDisponivel(), book.getDataPublicacao(), book.getPdfPath()))
+                .toList();
+    }
+
+    static List<BookDTO> dtos(int count, int authorsPerBook, int authorCount) {
+        List<BookDTO> dtos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BookDTO dto = new BookDTO();
+            dto.setTitulo("Título do livro número " + i);
+            dto.setPaginas(100 + i % 500);
+            dto.setDisponivel(i % 3 != 0);
+            dto.setDataPublicacao(LocalDate.of(1950, 1, 1).plusDays(i * 13L));
+            List<Long> authorIds = new ArrayList<>(authorsPerBook);
+            for (int a = 0; a < authorsPerBook; a++) {
+                authorIds.add((long) ((i + a) % authorCount) + 1);
+            }
+            dto.setAuthorIds(authorIds);
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+}
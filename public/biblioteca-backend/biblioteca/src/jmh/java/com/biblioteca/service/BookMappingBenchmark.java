@@ -0,0 +1,98 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.BookDTO;
+import com.biblioteca.model.Author;
+import com.biblioteca.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamento de BookDTO para Book usado em createBook, importChunk e updateBook (sem acesso ao banco),
+ * e montagem do campo autor a partir dos nomes dos autores.
+ * Tamanhos de lista: a página padrão (50) e um lote da importação em massa (500).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookMappingBenchmark {
+
+    private static final int AUTHOR_COUNT = 200;
+
+    @Param({"50", "500"})
+    private int listSize;
+
+    @Param({"1", "3", "10"})
+    private int authorsPerBook;
+
+    private Map<Long, Author> authorsById;
+
+    private List<BookDTO> dtos;
+
+    private List<Book> existing;
+
+    private Set<Author> singleBookAuthors;
+
+    @Setup
+    public void setup() {
+        authorsById = BenchmarkData.authors(AUTHOR_COUNT);
+        dtos = BenchmarkData.dtos(listSize, authorsPerBook, AUTHOR_COUNT);
+        existing = BenchmarkData.books(listSize, authorsPerBook, authorsById);
+        singleBookAuthors = existing.get(0).getAuthors();
+    }
+
+    /**
+     * createBook / importChunk: novo Book a partir de cada DTO.
+     */
+    @Benchmark
+    public List<Book> mapForCreate() {
+        List<Book> books = new ArrayList<>(dtos.size());
+        for (BookDTO dto : dtos) {
+            Book book = new Book();
+            BookService.applyFields(book, dto);
+            BookService.applyAuthors(book, dto.getAuthorIds(), authorsById);
+            books.add(book);
+        }
+        return books;
+    }
+
+    /**
+     * updateBook: aplica cada DTO sobre um Book existente.
+     */
+    @Benchmark
+    public void mapForUpdate(Blackhole blackhole) {
+        for (int i = 0; i < dtos.size(); i++) {
+            Book book = existing.get(i);
+            BookDTO dto = dtos.get(i);
+            BookService.applyFields(book, dto);
+            BookService.applyAuthors(book, dto.getAuthorIds(), authorsById);
+            blackhole.consume(book);
+        }
+    }
+
+    /**
+     * Montagem do campo autor ("Nome A, Nome B") de um livro.
+     */
+    @Benchmark
+    public String joinAuthorNames() {
+        return BookService.joinAuthorNames(singleBookAuthors);
+    }
+}
@@ -0,0 +1,54 @@
+package com.biblioteca.service;
+
+import com.biblioteca.model.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON de livros com o grafo de autores, como nas respostas de GET /books e GET /books/{id}.
+ * Tamanhos de lista: um livro (detalhe), a página padrão (50) e a página máxima (500).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookSerializationBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int listSize;
+
+    @Param({"1", "3"})
+    private int authorsPerBook;
+
+    private ObjectMapper objectMapper;
+
+    private List<Book> books;
+
+    @Setup
+    public void setup() {
+        // Mesma configuração base do ObjectMapper criado pelo Spring Boot.
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        books = BenchmarkData.books(listSize, authorsPerBook, BenchmarkData.authors(200));
+    }
+
+    @Benchmark
+    public byte[] serializeBooks() throws Exception {
+        return objectMapper.writeValueAsBytes(books);
+    }
+}
@@ -0,0 +1,84 @@
+package com.biblioteca.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tamanho e custo de serialização das respostas em JSON, CBOR e Smile, com e sem gzip.
+ * {@code payload=summaries} são as linhas de GET /books; {@code payload=books} são livros com o grafo de
+ * autores, como em GET /books/{id} e na exportação.
+ * <p>
+ * O tempo aparece no resultado do JMH; o tamanho de cada combinação é impresso no início de cada fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"summaries", "books"})
+    private String payload;
+
+    @Param({"50", "500"})
+    private int listSize;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ObjectMapper objectMapper;
+
+    private List<?> data;
+
+    @Setup
+    public void setup() throws IOException {
+        // Mesma configuração base do Spring Boot; só a fábrica de geradores muda (ver BinaryFormatsConfig).
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        switch (format) {
+            case "cbor" -> builder.factory(new CBORFactory());
+            case "smile" -> builder.factory(new SmileFactory());
+            default -> {
+            }
+        }
+        objectMapper = builder.build();
+        var books = BenchmarkData.books(listSize, 2, BenchmarkData.authors(200));
+        data = payload.equals("books") ? books : BenchmarkData.summaries(books);
+        System.out.printf("%n[tamanho] format=%s payload=%s listSize=%d gzip=%s: %d bytes%n",
+                format, payload, listSize, gzip, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        if (!gzip) {
+            return objectMapper.writeValueAsBytes(data);
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(out, data);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,68 @@
+package com.biblioteca.config;
+
+/**
+ * Limite de requisições simultâneas que se ajusta pela latência observada (AIMD): cada resposta dentro da
+ * latência-alvo aumenta o limite aos poucos, até o máximo configurado; respostas acima do alvo o reduzem
+ * multiplicativamente, até 1. Com latência-alvo zero o limite é fixo.
+ * <p>
+ * Não há fila: sem permissão disponível, {@link #tryAcquire()} recusa na hora.
+ */
+final class AdaptiveLimiter {
+
+    // Fator aplicado ao limite quando a latência passa do alvo.
+    static final double BACKOFF = 0.75;
+
+    private final int maxLimit;
+
+    private final long targetNanos;
+
+    private double limit;
+
+    private int inFlight;
+
+    private long lastDecrease;
+
+    AdaptiveLimiter(int maxLimit, long targetNanos) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.targetNanos = targetNanos;
+        this.limit = this.maxLimit;
+        this.lastDecrease = System.nanoTime() - targetNanos;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Devolve a permissão e ajusta o limite pela latência da requisição.
+     */
+    synchronized void release(long latencyNanos) {
+        inFlight--;
+        if (targetNanos <= 0) {
+            return;
+        }
+        if (latencyNanos > targetNanos) {
+            // Uma redução por intervalo de latência-alvo: as respostas lentas de uma mesma rajada contam uma vez só.
+            long now = System.nanoTime();
+            if (now - lastDecrease >= targetNanos) {
+                limit = Math.max(1, limit * BACKOFF);
+                lastDecrease = now;
+            }
+        } else if (inFlight + 1 >= limit / 2) {
+            // Só cresce quando o limite está de fato em uso: cerca de +1 a cada "limit" respostas rápidas.
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,175 @@
+package com.biblioteca.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Controle de admissão por classe de endpoint. Cada classe tem seu próprio limite de requisições simultâneas,
+ * ajustado pela latência observada (ver {@link AdaptiveLimiter}); acima do limite a requisição recebe 503 com
+ * Retry-After na hora, sem ocupar thread do Tomcat, conexão do banco ou memória.
+ * <ul>
+ *   <li>{@code transfer}: upload e download de PDFs, importação, exportação, exclusão e alteração em massa e a
+ *   recontagem das facetas</li>
+ *   <li>{@code listing}: listagens e buscas (GET /books, /authors, /changes e /search)</li>
+ *   <li>{@code default}: o restante, como GET /books/{id} e as escritas</li>
+ * </ul>
+ * Assim uma rajada de listagens completas ou de uploads grandes não derruba as leituras baratas.
+ * Métricas: biblioteca.admission.limit, biblioteca.admission.in.flight e biblioteca.admission.rejected, por class.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(name = "biblioteca.admission.enabled", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private static final Set<String> BULK = Set.of("/books/export", "/books/batch", "/books/bulk-delete", "/books/bulk",
+            "/books/facets/rebuild");
+
+    private static final Set<String> LISTINGS = Set.of("/books", "/books/search", "/authors", "/authors/search", "/changes");
+
+    enum EndpointClass {
+        LISTING("listing"), TRANSFER("transfer"), DEFAULT("default");
+
+        private final String tag;
+
+        EndpointClass(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<EndpointClass, AdaptiveLimiter> limiters = new EnumMap<>(EndpointClass.class);
+
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+
+    private final String retryAfter;
+
+    public AdmissionControlFilter(@Value("${biblioteca.admission.listing.max-concurrency:32}") int listingLimit,
+                                  @Value("${biblioteca.admission.listing.target-latency:PT0.5S}") Duration listingTarget,
+                                  @Value("${biblioteca.admission.transfer.max-concurrency:8}") int transferLimit,
+                                  @Value("${biblioteca.admission.transfer.target-latency:PT0S}") Duration transferTarget,
+                                  @Value("${biblioteca.admission.default.max-concurrency:128}") int defaultLimit,
+                                  @Value("${biblioteca.admission.default.target-latency:PT0.25S}") Duration defaultTarget,
+                                  @Value("${biblioteca.admission.retry-after:PT1S}") Duration retryAfter,
+                                  MeterRegistry meterRegistry) {
+        limiters.put(EndpointClass.LISTING, new AdaptiveLimiter(listingLimit, listingTarget.toNanos()));
+        limiters.put(EndpointClass.TRANSFER, new AdaptiveLimiter(transferLimit, transferTarget.toNanos()));
+        limiters.put(EndpointClass.DEFAULT, new AdaptiveLimiter(defaultLimit, defaultTarget.toNanos()));
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+
+        limiters.forEach((endpointClass, limiter) -> {
+            Gauge.builder("biblioteca.admission.limit", limiter, AdaptiveLimiter::limit)
+                    .description("Limite atual de requisições simultâneas")
+                    .tag("class", endpointClass.tag)
+                    .register(meterRegistry);
+            Gauge.builder("biblioteca.admission.in.flight", limiter, AdaptiveLimiter::inFlight)
+                    .description("Requisições em andamento")
+                    .tag("class", endpointClass.tag)
+                    .register(meterRegistry);
+            rejections.put(endpointClass, Counter.builder("biblioteca.admission.rejected")
+                    .description("Requisições recusadas com 503 por excesso de carga")
+                    .tag("class", endpointClass.tag)
+                    .register(meterRegistry));
+        });
+    }
+
+    static EndpointClass classify(String method, String path) {
+        if (path.startsWith("/books/files/") || path.endsWith("/upload-pdf")
+                || BULK.contains(path)) {
+            return EndpointClass.TRANSFER;
+        }
+        if ("GET".equals(method) && LISTINGS.contains(path)) {
+            return EndpointClass.LISTING;
+        }
+        return EndpointClass.DEFAULT;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+        AdaptiveLimiter limiter = limiters.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            rejections.get(endpointClass).increment();
+            logger.warn("Requisição {} {} recusada: {} requisições '{}' em andamento", request.getMethod(),
+                    request.getRequestURI(), limiter.limit(), endpointClass.tag);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor ocupado, tente novamente.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start);
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Exportação (StreamingResponseBody): a permissão vale até o fim da escrita, não até o fim desta thread.
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * Executa {@code release} quando a requisição assíncrona termina, com sucesso, erro ou tempo esgotado.
+     */
+    record ReleasingListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Um novo ciclo assíncrono na mesma requisição: continua aguardando o fim dele.
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.biblioteca.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Formatos binários negociados pelo cabeçalho Accept, além de JSON: CBOR ({@code application/cbor}) e
+ * Smile ({@code application/x-jackson-smile}). Ambos usam a mesma configuração do ObjectMapper JSON
+ * (propriedades spring.jackson.*, módulos de datas), então a estrutura das respostas é idêntica; só a
+ * codificação muda. JSON continua sendo o formato padrão quando o cliente não pede outro.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+}
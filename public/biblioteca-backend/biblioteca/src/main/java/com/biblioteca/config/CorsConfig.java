@@ -19,8 +19,9 @@ public class CorsConfig {
             public void addCorsMappings(CorsRegistry registry) {
                 registry.addMapping("/**") // Aplica a configuração a todos os endpoints
                         .allowedOrigins("http://localhost:4200") // Permite requisições do frontend Angular
-                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Métodos HTTP permitidos
+                        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS") // Métodos HTTP permitidos
                         .allowedHeaders("*") // Permite todos os cabeçalhos
+                        .exposedHeaders("X-Next-Cursor", "Link", "ETag", "Last-Modified", "X-SQL-Count", "X-Request-Id", "Retry-After") // Paginação, cache condicional, diagnóstico e carga
                         .allowCredentials(true); // Permite o envio de cookies e credenciais
             }
         };
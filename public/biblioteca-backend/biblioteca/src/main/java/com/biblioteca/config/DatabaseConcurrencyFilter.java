@@ -0,0 +1,75 @@
+package com.biblioteca.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita quantas requisições que usam o banco executam ao mesmo tempo quando o modo de threads virtuais está
+ * ligado (spring.threads.virtual.enabled=true, Java 21+).
+ * <p>
+ * Com threads de plataforma, o pool do Tomcat já limita a concorrência. Com threads virtuais não há esse limite,
+ * e milhares de requisições disputariam as poucas conexões do HikariCP até estourar o connection-timeout.
+ * Aqui elas esperam numa fila justa por uma permissão ({@link DatabasePermits}), com tempo máximo; quem não
+ * consegue recebe 503. A permissão vale até o fim da resposta, inclusive da escrita assíncrona da exportação.
+ * Downloads de PDF não passam pelo banco e ficam de fora. Uploads também: o corpo, que pode ter centenas de MB,
+ * é recebido sem permissão, e o controlador só a pede para gravar o livro.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DatabaseConcurrencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseConcurrencyFilter.class);
+
+    private final DatabasePermits permits;
+
+    public DatabaseConcurrencyFilter(DatabasePermits permits) {
+        this.permits = permits;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/books/files/") || path.endsWith("/upload-pdf") || path.startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!permits.tryAcquire()) {
+            logger.warn("Sem conexão disponível para {} {} após {}", request.getMethod(), request.getRequestURI(),
+                    permits.getAcquireTimeout());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor ocupado, tente novamente.");
+            return;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Exportação (StreamingResponseBody): o cursor do banco fica aberto até o fim da escrita.
+                request.getAsyncContext().addListener(new AdmissionControlFilter.ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+}
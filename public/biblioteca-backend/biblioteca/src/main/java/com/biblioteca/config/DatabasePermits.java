@@ -0,0 +1,59 @@
+package com.biblioteca.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permissões de acesso ao banco no modo de threads virtuais, uma por conexão do pool (ver
+ * {@link DatabaseConcurrencyFilter}). Quem não consegue uma permissão dentro do tempo máximo deve responder 503.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DatabasePermits {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabasePermits.class);
+
+    private final Semaphore permits;
+
+    private final Duration acquireTimeout;
+
+    public DatabasePermits(@Value("${biblioteca.virtual-threads.db-permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+                           @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                           @Value("${biblioteca.virtual-threads.db-acquire-timeout:PT5S}") Duration acquireTimeout) {
+        if (permits > poolSize) {
+            logger.warn("biblioteca.virtual-threads.db-permits ({}) maior que o pool de conexões ({}); requisições vão esperar no HikariCP",
+                    permits, poolSize);
+        }
+        logger.info("Threads virtuais ativas: até {} requisições simultâneas com acesso ao banco (pool de {} conexões)", permits, poolSize);
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * Espera por uma permissão numa fila justa, até o tempo máximo. Retorna {@code false} se não conseguiu.
+     */
+    public boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+}
@@ -0,0 +1,118 @@
+package com.biblioteca.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Identificador de correlação e linha de resumo por requisição.
+ * <p>
+ * O identificador vem do cabeçalho X-Request-Id (quando válido) ou é gerado aqui; fica no MDC como
+ * {@code requestId}, aparece em todas as linhas de log da requisição (logging.pattern.correlation) e volta na
+ * resposta. Ao final, o logger {@code biblioteca.requests} recebe uma única linha com método, rota, status,
+ * duração e comandos SQL. Leituras bem-sucedidas e rápidas entram por amostragem
+ * (biblioteca.logging.read-sample-rate); escritas, erros e requisições lentas entram sempre.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    public static final String MDC_KEY = "requestId";
+
+    private static final Logger logger = LoggerFactory.getLogger("biblioteca.requests");
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final double readSampleRate;
+
+    private final long slowNanos;
+
+    public RequestLoggingFilter(@Value("${biblioteca.logging.read-sample-rate:1}") double readSampleRate,
+                                @Value("${biblioteca.logging.slow-request:PT1S}") Duration slowRequest) {
+        this.readSampleRate = readSampleRate;
+        this.slowNanos = slowRequest.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong());
+        }
+        MDC.put(MDC_KEY, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        // Requisições recusadas antes de SqlStatementCountFilter não devem herdar a contagem da anterior na thread.
+        SqlStatementCounter.reset();
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Exportação: os comandos SQL rodam em outra thread, então a linha sai sem a contagem.
+                String id = requestId;
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        MDC.put(MDC_KEY, id);
+                        summarize(request, response, System.nanoTime() - start, -1);
+                        MDC.remove(MDC_KEY);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                summarize(request, response, System.nanoTime() - start, SqlStatementCounter.current());
+            }
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    private void summarize(HttpServletRequest request, HttpServletResponse response, long elapsedNanos, long statements) {
+        if (!logger.isInfoEnabled() || !shouldLog(request.getMethod(), response.getStatus(), elapsedNanos)) {
+            return;
+        }
+        String uri = request.getQueryString() == null ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        logger.info("method={} uri={} status={} ms={} sql={}", request.getMethod(), uri, response.getStatus(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), statements < 0 ? "-" : statements);
+    }
+
+    boolean shouldLog(String method, int status, long elapsedNanos) {
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        if (!read || status >= 400 || elapsedNanos >= slowNanos) {
+            return true;
+        }
+        return readSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < readSampleRate;
+    }
+}
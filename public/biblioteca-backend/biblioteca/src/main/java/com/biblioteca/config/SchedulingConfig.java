@@ -0,0 +1,12 @@
+package com.biblioteca.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas periódicas (@Scheduled), como os varredores do processamento de PDFs e da renomeação de autores.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,31 @@
+package com.biblioteca.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adiciona o cabeçalho X-SQL-Count, com os comandos SQL executados até a escrita do corpo da resposta.
+ */
+@ControllerAdvice
+public class SqlStatementCountAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-SQL-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().set(HEADER, Long.toString(SqlStatementCounter.current()));
+        return body;
+    }
+}
@@ -0,0 +1,49 @@
+package com.biblioteca.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Mede quantos comandos SQL cada requisição executou (ver {@link SqlStatementCounter}).
+ * O total vai para a métrica biblioteca.http.sql.statements, por método e rota, e para a linha de resumo
+ * da requisição no log (ver {@link RequestLoggingFilter}).
+ * Respostas com corpo JSON também recebem o cabeçalho X-SQL-Count (ver {@link SqlStatementCountAdvice}).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long statements = SqlStatementCounter.current();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("biblioteca.http.sql.statements")
+                    .description("Comandos SQL executados por requisição")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.biblioteca.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Conta os comandos SQL enviados pelo Hibernate na thread atual.
+ * Registrado como hibernate.session_factory.statement_inspector (ver {@link SqlStatementCounterConfig});
+ * {@link SqlStatementCountFilter} zera o contador no início de cada requisição e o publica ao final.
+ * <p>
+ * Também registra uma amostra dos comandos no logger {@code biblioteca.sql} em DEBUG, no lugar de
+ * spring.jpa.show-sql, que escreve todos os comandos direto no stdout.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final Logger sqlLogger = LoggerFactory.getLogger("biblioteca.sql");
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final double sampleRate;
+
+    public SqlStatementCounter() {
+        this(0);
+    }
+
+    /**
+     * @param sampleRate fração dos comandos registrada no log (0 a 1)
+     */
+    public SqlStatementCounter(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        if (sampleRate > 0 && sqlLogger.isDebugEnabled()
+                && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            sqlLogger.debug("{}", sql);
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,21 @@
+package com.biblioteca.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra {@link SqlStatementCounter} no Hibernate já com a taxa de amostragem do log de SQL
+ * (biblioteca.logging.sql-sample-rate).
+ */
+@Configuration
+public class SqlStatementCounterConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter(@Value("${biblioteca.logging.sql-sample-rate:0}") double sampleRate) {
+        SqlStatementCounter counter = new SqlStatementCounter(sampleRate);
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+}
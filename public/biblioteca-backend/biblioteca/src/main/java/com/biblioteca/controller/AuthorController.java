@@ -1,16 +1,23 @@
 package com.biblioteca.controller;
 
 import com.biblioteca.dto.AuthorDTO;
+import com.biblioteca.dto.AuthorSuggestion;
+import com.biblioteca.dto.AuthorSummary;
 import com.biblioteca.model.Author;
 import com.biblioteca.service.AuthorService;
+import com.biblioteca.service.BookService;
+import com.biblioteca.service.ResourceVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/authors")
@@ -23,37 +30,61 @@ public class AuthorController {
 
     @PostMapping(consumes = "application/json")
     public ResponseEntity<Author> createAuthor(@RequestBody AuthorDTO author) {
-        logger.info("Recebida requisição POST para criar autor: {}", author.getName());
+        logger.debug("Recebida requisição POST para criar autor: {}", author.getName());
         Author createdAuthor = authorService.createAuthor(author);
         return new ResponseEntity<>(createdAuthor, HttpStatus.CREATED);
     }
 
     @GetMapping
-    public ResponseEntity<List<Author>> getAllAuthors() {
-        logger.info("Recebida requisição GET para listar todos os autores");
-        List<Author> authors = authorService.getAllAuthors();
-        return new ResponseEntity<>(authors, HttpStatus.OK);
+    public ResponseEntity<List<AuthorSummary>> getAuthors(@RequestParam(required = false) Long after,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        logger.debug("Recebida requisição GET para listar autores após o ID: {}", after);
+        int pageSize = BookService.clampLimit(limit);
+        List<AuthorSummary> authors = authorService.getAuthors(after, pageSize);
+        return new ResponseEntity<>(authors, CursorHeaders.of(authors, pageSize, AuthorSummary::id), HttpStatus.OK);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<AuthorSummary>> searchAuthors(@RequestParam String q,
+                                                             @RequestParam(defaultValue = "0") int page,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        logger.debug("Recebida requisição GET para buscar autores por: {}", q);
+        return new ResponseEntity<>(authorService.searchAuthors(q, page, size), HttpStatus.OK);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<AuthorSuggestion>> suggestAuthors(@RequestParam String prefix,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(authorService.suggestAuthors(prefix, limit), HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Author> getAuthorById(@PathVariable Long id) {
-        logger.info("Recebida requisição GET para buscar autor com ID: {}", id);
-        return authorService.getAuthorById(id)
-                .map(author -> new ResponseEntity<>(author, HttpStatus.OK))
-                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public ResponseEntity<Author> getAuthorById(@PathVariable Long id, WebRequest request) {
+        logger.debug("Recebida requisição GET para buscar autor com ID: {}", id);
+        Optional<Author> author = authorService.getAuthorById(id);
+        if (author.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        // O autor vem do cache de segundo nível; basta comparar a versão antes de serializar.
+        ResourceVersion version = AuthorService.versionOf(author.get());
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        return BookController.withVersion(ResponseEntity.ok(), version).body(author.get());
     }
 
     @PutMapping(value = "/{id}", consumes = "application/json")
-    public ResponseEntity<Author> updateAuthor(@PathVariable Long id, @RequestBody AuthorDTO authorDetails) {
-        logger.info("Recebida requisição PUT para atualizar autor com ID: {}", id);
-        return authorService.updateAuthor(id, authorDetails)
-                .map(author -> new ResponseEntity<>(author, HttpStatus.OK))
+    public ResponseEntity<Author> updateAuthor(@PathVariable Long id, @RequestBody AuthorDTO authorDetails,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.debug("Recebida requisição PUT para atualizar autor com ID: {}", id);
+        return authorService.updateAuthor(id, authorDetails, ifMatch)
+                .map(author -> BookController.withVersion(ResponseEntity.ok(), AuthorService.versionOf(author)).body(author))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAuthor(@PathVariable Long id) {
-        logger.info("Recebida requisição DELETE para deletar autor com ID: {}", id);
+        logger.debug("Recebida requisição DELETE para deletar autor com ID: {}", id);
         authorService.deleteAuthor(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
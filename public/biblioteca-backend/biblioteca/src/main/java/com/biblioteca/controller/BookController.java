@@ -1,25 +1,49 @@
 package com.biblioteca.controller;
 
+import com.biblioteca.config.DatabasePermits;
+import com.biblioteca.dto.BookBulkRequestDTO;
+import com.biblioteca.dto.BookBulkResultDTO;
+import com.biblioteca.dto.BookBulkUpdateDTO;
 import com.biblioteca.dto.BookDTO;
+import com.biblioteca.dto.BookFacetsDTO;
+import com.biblioteca.dto.BookFilter;
+import com.biblioteca.dto.BookImportResultDTO;
+import com.biblioteca.dto.BookSummary;
+import com.biblioteca.dto.PdfIngestionStatusDTO;
+import com.biblioteca.exception.ResourceNotFoundException;
 import com.biblioteca.model.Book;
+import com.biblioteca.service.BookBulkService;
+import com.biblioteca.service.BookFacetService;
+import com.biblioteca.service.BookImportService;
 import com.biblioteca.service.BookService;
+import com.biblioteca.service.PdfIngestionService;
+import com.biblioteca.service.PdfStorageService;
+import com.biblioteca.service.ResourceVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,97 +53,253 @@ public class BookController {
 
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
 
+    // Sequência de itens CBOR concatenados (RFC 8742).
+    static final String APPLICATION_CBOR_SEQ_VALUE = "application/cbor-seq";
+
     @Autowired
     private BookService bookService;
 
-    private final Path root = Paths.get("uploads");
+    @Autowired
+    private BookImportService bookImportService;
 
-    public BookController() {
-        try {
-            Files.createDirectories(root);
-        } catch (IOException e) {
-            throw new RuntimeException("Não foi possível inicializar a pasta para upload!");
-        }
-    }
+    @Autowired
+    private BookBulkService bookBulkService;
+
+    @Autowired
+    private BookFacetService bookFacetService;
+
+    @Autowired
+    private PdfStorageService pdfStorageService;
+
+    @Autowired
+    private PdfIngestionService pdfIngestionService;
+
+    @Autowired
+    private FileRangeSender fileRangeSender;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    // Só existe no modo de threads virtuais; o upload fica fora do DatabaseConcurrencyFilter.
+    @Autowired
+    private ObjectProvider<DatabasePermits> databasePermits;
+
+    // Tempo limite da exportação, no lugar do spring.mvc.async.request-timeout das demais requisições assíncronas.
+    @Value("${biblioteca.export.timeout:PT30M}")
+    private Duration exportTimeout;
 
     @PostMapping(consumes = "application/json")
     public ResponseEntity<Book> createBook(@RequestBody BookDTO bookDTO) {
-        logger.info("Recebida requisição POST para criar livro: {}", bookDTO.getTitulo());
+        logger.debug("Recebida requisição POST para criar livro: {}", bookDTO.getTitulo());
         Book createdBook = bookService.createBook(bookDTO);
         return new ResponseEntity<>(createdBook, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookImportResultDTO> importBooks(@RequestBody List<BookDTO> books) {
+        logger.debug("Recebida requisição POST para importar {} livros", books.size());
+        return new ResponseEntity<>(bookImportService.importBooks(books), HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BookImportResultDTO> importBooksNdjson(InputStream body) throws IOException {
+        logger.debug("Recebida requisição POST para importar livros em NDJSON");
+        return new ResponseEntity<>(bookImportService.importNdjson(body), HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/bulk-delete", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookBulkResultDTO> deleteBooks(@RequestBody BookBulkRequestDTO request) {
+        logger.debug("Recebida requisição POST para excluir livros em massa");
+        return new ResponseEntity<>(bookBulkService.deleteBooks(request), HttpStatus.OK);
+    }
+
+    @PatchMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookBulkResultDTO> updateBooks(@RequestBody BookBulkUpdateDTO request) {
+        logger.debug("Recebida requisição PATCH para alterar livros em massa");
+        return new ResponseEntity<>(bookBulkService.updateBooks(request), HttpStatus.OK);
+    }
+
     @GetMapping
-    public ResponseEntity<List<Book>> getAllBooks() {
-        logger.info("Recebida requisição GET para listar todos os livros");
-        List<Book> books = bookService.getAllBooks();
-        return new ResponseEntity<>(books, HttpStatus.OK);
+    public ResponseEntity<List<BookSummary>> getBooks(BookFilter filter,
+                                               @RequestParam(required = false) Long after,
+                                               @RequestParam(defaultValue = "50") int limit) {
+        logger.debug("Recebida requisição GET para listar livros após o ID: {}", after);
+        int pageSize = BookService.clampLimit(limit);
+        List<BookSummary> books = bookService.getBooks(filter, after, pageSize);
+        return new ResponseEntity<>(books, CursorHeaders.of(books, pageSize, BookSummary::id), HttpStatus.OK);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<BookSummary>> searchBooks(@RequestParam String q,
+                                                  @RequestParam(defaultValue = "0") int page,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        logger.debug("Recebida requisição GET para buscar livros por: {}", q);
+        return new ResponseEntity<>(bookService.searchBooks(q, page, size), HttpStatus.OK);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<BookFacetsDTO> getFacets() {
+        return new ResponseEntity<>(bookFacetService.getFacets(), HttpStatus.OK);
+    }
+
+    @PostMapping("/facets/rebuild")
+    public ResponseEntity<BookFacetsDTO> rebuildFacets() {
+        logger.debug("Recebida requisição POST para recontar as facetas do acervo");
+        return new ResponseEntity<>(bookFacetService.rebuild(), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks(HttpServletRequest request) {
+        logger.debug("Recebida requisição GET para exportar o catálogo");
+        useExportTimeout(request);
+        StreamingResponseBody body = out -> bookService.exportBooks(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Exportação em sequência CBOR (application/cbor-seq): mesmos livros do NDJSON em codificação binária.
+     */
+    @GetMapping(value = "/export", produces = APPLICATION_CBOR_SEQ_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooksCbor(HttpServletRequest request) {
+        logger.debug("Recebida requisição GET para exportar o catálogo em CBOR");
+        useExportTimeout(request);
+        StreamingResponseBody body = out -> bookService.exportBooks(out, cborConverter.getObjectMapper().writer());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_CBOR_SEQ_VALUE))
+                .body(body);
+    }
+
+    /**
+     * Troca o tempo limite global pelo da exportação, só nesta requisição. Precisa ser chamado antes de devolver o
+     * StreamingResponseBody: o processamento assíncrono começa com o tempo limite definido aqui.
+     */
+    private void useExportTimeout(HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
-        logger.info("Recebida requisição GET para buscar livro com ID: {}", id);
+    public ResponseEntity<Book> getBookById(@PathVariable Long id, WebRequest request) {
+        logger.debug("Recebida requisição GET para buscar livro com ID: {}", id);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            // Requisição condicional: compara só as versões, sem carregar nem serializar o livro.
+            Optional<ResourceVersion> current = bookService.getBookVersion(id);
+            if (current.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            if (request.checkNotModified(current.get().eTag(), current.get().lastModifiedMillis())) {
+                // checkNotModified já preparou a resposta 304 com ETag e Last-Modified.
+                return null;
+            }
+        }
         return bookService.getBookById(id)
-                .map(book -> new ResponseEntity<>(book, HttpStatus.OK))
+                .map(book -> withVersion(ResponseEntity.ok(), BookService.versionOf(book)).body(book))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @PutMapping(value = "/{id}", consumes = "application/json")
-    public ResponseEntity<Book> updateBook(@PathVariable Long id, @RequestBody BookDTO bookDTO) {
-        logger.info("Recebida requisição PUT para atualizar livro com ID: {}", id);
-        return bookService.updateBook(id, bookDTO)
-                .map(book -> new ResponseEntity<>(book, HttpStatus.OK))
+    public ResponseEntity<Book> updateBook(@PathVariable Long id, @RequestBody BookDTO bookDTO,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.debug("Recebida requisição PUT para atualizar livro com ID: {}", id);
+        return bookService.updateBook(id, bookDTO, ifMatch)
+                .map(book -> withVersion(ResponseEntity.ok(), BookService.versionOf(book)).body(book))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
-        logger.info("Recebida requisição DELETE para deletar livro com ID: {}", id);
+        logger.debug("Recebida requisição DELETE para deletar livro com ID: {}", id);
         bookService.deleteBook(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
-    @PostMapping("/{id}/upload-pdf")
+    @PostMapping(value = "/{id}/upload-pdf", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<String> uploadPdf(@PathVariable Long id, @RequestParam("file") MultipartFile file) {
-        logger.info("Recebida requisição POST para upload de PDF para o livro ID: {}. Nome do arquivo: {}", id, file.getOriginalFilename());
-        Optional<Book> bookOptional = bookService.getBookById(id);
-
-        if (bookOptional.isEmpty()) {
-            return new ResponseEntity<>("Livro não encontrado.", HttpStatus.NOT_FOUND);
+        logger.debug("Recebida requisição POST para upload de PDF para o livro ID: {}. Nome do arquivo: {}", id, file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            return storePdf(id, in);
+        } catch (IOException e) {
+            logger.error("Falha no upload do arquivo: {}", e.getMessage());
+            return new ResponseEntity<>("Falha no upload do arquivo!", HttpStatus.INTERNAL_SERVER_ERROR);
         }
+    }
 
+    /**
+     * Upload com o PDF direto no corpo (Content-Type: application/pdf), sem a etapa multipart.
+     */
+    @PostMapping(value = "/{id}/upload-pdf", consumes = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<String> uploadPdfBody(@PathVariable Long id, InputStream body) {
+        logger.debug("Recebida requisição POST para upload de PDF (corpo) para o livro ID: {}", id);
         try {
-            Files.copy(file.getInputStream(), this.root.resolve(file.getOriginalFilename()));
-            Book book = bookOptional.get();
-            book.setPdfPath(this.root.resolve(file.getOriginalFilename()).toString());
-            bookService.save(book);
-            return new ResponseEntity<>("Upload do arquivo realizado com sucesso: " + file.getOriginalFilename(), HttpStatus.OK);
-        } catch (Exception e) {
+            return storePdf(id, body);
+        } catch (IOException e) {
             logger.error("Falha no upload do arquivo: {}", e.getMessage());
             return new ResponseEntity<>("Falha no upload do arquivo!", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-    @GetMapping("/files/{filename:.+}")
-    public ResponseEntity<Resource> getFile(@PathVariable String filename) {
-        logger.info("Recebida requisição GET para baixar o arquivo: {}", filename);
+    private ResponseEntity<String> storePdf(Long id, InputStream in) throws IOException {
+        PdfStorageService.StagedPdf staged = pdfStorageService.stage(in);
+        // O corpo já foi gravado em disco; a permissão de banco cobre só a transação que associa o PDF ao livro.
+        DatabasePermits permits = databasePermits.getIfAvailable();
+        if (permits != null && !permits.tryAcquire()) {
+            pdfStorageService.discard(staged);
+            logger.warn("Sem conexão disponível para gravar o PDF do livro ID: {}", id);
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, "1");
+            return new ResponseEntity<>("Servidor ocupado, tente novamente.", headers, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        Optional<Book> book;
         try {
-            Path file = root.resolve(filename);
-            Resource resource = new UrlResource(file.toUri());
-
-            if (resource.exists() || resource.isReadable()) {
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                        .contentType(MediaType.APPLICATION_PDF)
-                        .body(resource);
-            } else {
-                logger.warn("Arquivo não encontrado ou ilegível: {}", filename);
-                throw new RuntimeException("Não foi possível ler o arquivo!");
+            book = bookService.attachPdf(id, staged);
+        } catch (RuntimeException e) {
+            pdfStorageService.discard(staged);
+            throw e;
+        } finally {
+            if (permits != null) {
+                permits.release();
             }
-        } catch (MalformedURLException e) {
-            logger.error("Erro de URL mal formada para o arquivo: {}", filename, e);
-            throw new RuntimeException("Erro: " + e.getMessage());
         }
+        if (book.isEmpty()) {
+            return new ResponseEntity<>("Livro não encontrado.", HttpStatus.NOT_FOUND);
+        }
+        String filename = Paths.get(book.get().getPdfPath()).getFileName().toString();
+        return new ResponseEntity<>("Upload do arquivo realizado com sucesso: " + filename, HttpStatus.OK);
+    }
+
+    /**
+     * Situação da extração de páginas, metadados e texto do PDF enviado para o livro.
+     */
+    @GetMapping("/{id}/pdf/status")
+    public ResponseEntity<PdfIngestionStatusDTO> getPdfStatus(@PathVariable Long id) {
+        logger.debug("Recebida requisição GET para o status do PDF do livro ID: {}", id);
+        return pdfIngestionService.getStatus(id)
+                .map(status -> new ResponseEntity<>(status, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Serve o PDF com suporte a Range, para que visualizadores busquem só as páginas que exibem.
+     */
+    @GetMapping("/files/{filename:.+}")
+    public void getFile(@PathVariable String filename, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        logger.debug("Recebida requisição GET para baixar o arquivo: {} (Range: {})", filename, request.getHeader(HttpHeaders.RANGE));
+        Path file = pdfStorageService.resolve(filename).orElseThrow(() -> {
+            logger.warn("Arquivo não encontrado ou ilegível: {}", filename);
+            return new ResourceNotFoundException("Arquivo não encontrado: " + filename);
+        });
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(file.getFileName().toString(), StandardCharsets.UTF_8)
+                .build();
+        fileRangeSender.send(file, MediaType.APPLICATION_PDF, disposition, request, response);
     }
-}
 
+    static ResponseEntity.BodyBuilder withVersion(ResponseEntity.BodyBuilder builder, ResourceVersion version) {
+        builder.eTag(version.eTag());
+        if (version.lastModified() != null) {
+            builder.lastModified(version.lastModified());
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,31 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.dto.ChangeFeedDTO;
+import com.biblioteca.service.ChangeFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Feed de alterações para sincronização incremental: o cliente guarda o {@code cursor} da resposta e o envia
+ * em {@code since} na próxima chamada, repetindo enquanto {@code hasMore} for verdadeiro.
+ */
+@RestController
+@RequestMapping("/changes")
+public class ChangeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeController.class);
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @GetMapping
+    public ResponseEntity<ChangeFeedDTO> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                    @RequestParam(defaultValue = "100") int limit) {
+        logger.debug("Recebida requisição GET para alterações após o cursor {}", since);
+        return new ResponseEntity<>(changeFeedService.getChanges(since, limit), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,35 @@
+package com.biblioteca.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Monta os cabeçalhos de paginação por chave das listagens.
+ * Quando a página veio cheia, informa o cursor da próxima página em
+ * {@code X-Next-Cursor} e a URL correspondente em {@code Link: rel="next"}.
+ */
+final class CursorHeaders {
+
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private CursorHeaders() {
+    }
+
+    static <T> HttpHeaders of(List<T> page, int pageSize, Function<T, Long> idOf) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.size() < pageSize) {
+            return headers;
+        }
+        Long next = idOf.apply(page.get(page.size() - 1));
+        String nextUrl = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", next)
+                .replaceQueryParam("limit", pageSize)
+                .toUriString();
+        headers.set(NEXT_CURSOR, String.valueOf(next));
+        headers.add(HttpHeaders.LINK, "<" + nextUrl + ">; rel=\"next\"");
+        return headers;
+    }
+}
@@ -0,0 +1,149 @@
+package com.biblioteca.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Envia arquivos do disco com suporte a requisições parciais (Range / 206 Partial Content) e
+ * validadores de cache (ETag / Last-Modified).
+ *
+ * Quando o Tomcat oferece sendfile, a transferência é delegada ao conector (zero-copy do kernel) e a
+ * thread da requisição é liberada imediatamente. Caso contrário, os bytes são copiados com
+ * FileChannel.transferTo para o stream da resposta, passando por um buffer no heap.
+ */
+@Component
+class FileRangeSender {
+
+    // Atributos de requisição do Tomcat para sendfile (org.apache.coyote.Constants)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Counter bytesSent;
+
+    FileRangeSender(MeterRegistry meterRegistry) {
+        this.bytesSent = Counter.builder("biblioteca.pdf.bytes")
+                .description("Bytes de PDF recebidos em uploads e enviados em downloads")
+                .baseUnit("bytes")
+                .tag("direction", "download")
+                .register(meterRegistry);
+    }
+
+    void send(Path file, MediaType contentType, ContentDisposition disposition,
+              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String eTag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        response.setContentType(contentType.toString());
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = requestedRange(request, eTag, lastModified);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start >= length || start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            bytesSent.increment(count);
+            return;
+        }
+
+        long position = start;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        } finally {
+            // Conta o que chegou a ser enviado, mesmo se o cliente desconectar no meio.
+            bytesSent.increment(position - start);
+        }
+        response.flushBuffer();
+    }
+
+    /**
+     * Intervalo pedido no cabeçalho Range, ou null para enviar o arquivo inteiro.
+     * Cabeçalhos inválidos, múltiplos intervalos e If-Range desatualizado resultam no arquivo inteiro,
+     * como permitido pela RFC 9110.
+     */
+    private static HttpRange requestedRange(HttpServletRequest request, String eTag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || !isIfRangeSatisfied(request, eTag, lastModified)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isIfRangeSatisfied(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(eTag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
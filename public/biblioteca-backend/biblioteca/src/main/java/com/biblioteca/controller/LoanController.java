@@ -0,0 +1,45 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.dto.LoanRequestDTO;
+import com.biblioteca.model.Loan;
+import com.biblioteca.service.LoanService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Empréstimo e devolução de exemplares de um livro.
+ */
+@RestController
+@RequestMapping("/books/{id}")
+public class LoanController {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanController.class);
+
+    @Autowired
+    private LoanService loanService;
+
+    @PostMapping("/checkout")
+    public ResponseEntity<Loan> checkout(@PathVariable Long id, @RequestBody(required = false) LoanRequestDTO request) {
+        logger.debug("Recebida requisição POST para emprestar o livro com ID: {}", id);
+        Loan loan = loanService.checkout(id, request == null ? null : request.getLeitor());
+        return new ResponseEntity<>(loan, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/return")
+    public ResponseEntity<Loan> returnLoan(@PathVariable Long id, @RequestParam Long loanId) {
+        logger.debug("Recebida requisição POST para devolver o empréstimo {} do livro com ID: {}", loanId, id);
+        return new ResponseEntity<>(loanService.returnLoan(id, loanId), HttpStatus.OK);
+    }
+
+    @GetMapping("/loans")
+    public ResponseEntity<List<Loan>> getActiveLoans(@PathVariable Long id) {
+        logger.debug("Recebida requisição GET para os empréstimos ativos do livro com ID: {}", id);
+        return new ResponseEntity<>(loanService.getActiveLoans(id), HttpStatus.OK);
+    }
+}
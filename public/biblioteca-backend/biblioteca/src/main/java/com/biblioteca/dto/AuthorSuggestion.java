@@ -0,0 +1,8 @@
+package com.biblioteca.dto;
+
+/**
+ * Sugestão de autor para o preenchimento automático (GET /authors/suggest), com o número de livros
+ * usado na ordenação.
+ */
+public record AuthorSuggestion(Long id, String name, long livros) {
+}
@@ -0,0 +1,9 @@
+package com.biblioteca.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Autor como aparece nas listagens e na busca, sem a biografia. Lido por projeção, sem carregar a entidade.
+ */
+public record AuthorSummary(Long id, String name, LocalDate dataNascimento, String nacionalidade) {
+}
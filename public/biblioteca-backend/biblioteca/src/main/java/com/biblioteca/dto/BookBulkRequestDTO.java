@@ -0,0 +1,33 @@
+package com.biblioteca.dto;
+
+import java.util.List;
+
+/**
+ * Seleção de livros de uma operação em massa: uma lista de IDs ou os mesmos filtros da listagem.
+ * Exatamente um dos dois deve ser informado; um filtro sem nenhum campo preenchido não é aceito,
+ * para que uma requisição incompleta não alcance o acervo inteiro.
+ */
+public class BookBulkRequestDTO {
+
+    private List<Long> ids;
+
+    private BookFilter filter;
+
+    // Getters and Setters
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public BookFilter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(BookFilter filter) {
+        this.filter = filter;
+    }
+}
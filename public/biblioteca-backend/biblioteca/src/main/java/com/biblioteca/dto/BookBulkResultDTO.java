@@ -0,0 +1,58 @@
+package com.biblioteca.dto;
+
+/**
+ * Resultado de uma exclusão ou alteração em massa de livros.
+ * {@code selecionados} conta os livros encontrados pela seleção; {@code afetados}, os que foram de fato
+ * excluídos ou alterados (livros que já estavam no estado pedido não contam).
+ */
+public class BookBulkResultDTO {
+
+    private int selecionados;
+    private int afetados;
+    private int emprestimosRemovidos;
+    private int pdfsRemovidos;
+
+    /**
+     * Acumula o resultado de um lote no resultado geral.
+     */
+    public void merge(BookBulkResultDTO other) {
+        selecionados += other.selecionados;
+        afetados += other.afetados;
+        emprestimosRemovidos += other.emprestimosRemovidos;
+        pdfsRemovidos += other.pdfsRemovidos;
+    }
+
+    // Getters and Setters
+
+    public int getSelecionados() {
+        return selecionados;
+    }
+
+    public void setSelecionados(int selecionados) {
+        this.selecionados = selecionados;
+    }
+
+    public int getAfetados() {
+        return afetados;
+    }
+
+    public void setAfetados(int afetados) {
+        this.afetados = afetados;
+    }
+
+    public int getEmprestimosRemovidos() {
+        return emprestimosRemovidos;
+    }
+
+    public void setEmprestimosRemovidos(int emprestimosRemovidos) {
+        this.emprestimosRemovidos = emprestimosRemovidos;
+    }
+
+    public int getPdfsRemovidos() {
+        return pdfsRemovidos;
+    }
+
+    public void setPdfsRemovidos(int pdfsRemovidos) {
+        this.pdfsRemovidos = pdfsRemovidos;
+    }
+}
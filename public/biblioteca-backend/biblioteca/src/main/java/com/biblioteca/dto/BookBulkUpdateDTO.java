@@ -0,0 +1,35 @@
+package com.biblioteca.dto;
+
+/**
+ * Alteração em massa (PATCH /books/bulk). Informe exatamente uma das alterações:
+ * <ul>
+ *   <li>{@code disponivel = false}: retira do acervo os exemplares que estão na estante; os emprestados
+ *   continuam sendo devolvidos normalmente</li>
+ *   <li>{@code exemplares}: novo total de exemplares, preservando os emprestados; livros com mais
+ *   empréstimos ativos que o novo total ficam de fora</li>
+ * </ul>
+ */
+public class BookBulkUpdateDTO extends BookBulkRequestDTO {
+
+    private Boolean disponivel;
+
+    private Integer exemplares;
+
+    // Getters and Setters
+
+    public Boolean getDisponivel() {
+        return disponivel;
+    }
+
+    public void setDisponivel(Boolean disponivel) {
+        this.disponivel = disponivel;
+    }
+
+    public Integer getExemplares() {
+        return exemplares;
+    }
+
+    public void setExemplares(Integer exemplares) {
+        this.exemplares = exemplares;
+    }
+}
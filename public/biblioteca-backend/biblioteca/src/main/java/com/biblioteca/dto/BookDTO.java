@@ -8,7 +8,10 @@ public class BookDTO {
     private String titulo;
     private List<Long> authorIds;
     private int paginas;
-    private boolean disponivel;
+    // Opcional. Na criação, false cadastra o livro sem exemplares; na atualização, false retira os exemplares
+    // da estante (como PATCH /books/bulk) e true só é aceito se o livro continuar disponível.
+    private Boolean disponivel;
+    private Integer exemplares;
     private LocalDate dataPublicacao;
     private String pdfPath;
 
@@ -38,14 +41,22 @@ public class BookDTO {
         this.paginas = paginas;
     }
 
-    public boolean isDisponivel() {
+    public Boolean getDisponivel() {
         return disponivel;
     }
 
-    public void setDisponivel(boolean disponivel) {
+    public void setDisponivel(Boolean disponivel) {
         this.disponivel = disponivel;
     }
 
+    public Integer getExemplares() {
+        return exemplares;
+    }
+
+    public void setExemplares(Integer exemplares) {
+        this.exemplares = exemplares;
+    }
+
     public LocalDate getDataPublicacao() {
         return dataPublicacao;
     }
@@ -0,0 +1,13 @@
+package com.biblioteca.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Contagens do acervo para a navegação por facetas (GET /books/facets). Um livro com autores de nacionalidades
+ * diferentes conta uma vez em cada uma delas. {@code reconstruidoEm} é o momento da última recontagem completa;
+ * desde então as contagens são ajustadas a cada alteração.
+ */
+public record BookFacetsDTO(long total, List<FacetCount> anoPublicacao, List<FacetCount> disponivel,
+                            List<FacetCount> nacionalidade, Instant reconstruidoEm) {
+}
@@ -0,0 +1,56 @@
+package com.biblioteca.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros opcionais aceitos pela listagem de livros.
+ * Campos nulos não restringem o resultado.
+ */
+public class BookFilter {
+
+    private Boolean disponivel;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataPublicacaoDe;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataPublicacaoAte;
+
+    private Long authorId;
+
+    // Getters and Setters
+
+    public Boolean getDisponivel() {
+        return disponivel;
+    }
+
+    public void setDisponivel(Boolean disponivel) {
+        this.disponivel = disponivel;
+    }
+
+    public LocalDate getDataPublicacaoDe() {
+        return dataPublicacaoDe;
+    }
+
+    public void setDataPublicacaoDe(LocalDate dataPublicacaoDe) {
+        this.dataPublicacaoDe = dataPublicacaoDe;
+    }
+
+    public LocalDate getDataPublicacaoAte() {
+        return dataPublicacaoAte;
+    }
+
+    public void setDataPublicacaoAte(LocalDate dataPublicacaoAte) {
+        this.dataPublicacaoAte = dataPublicacaoAte;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+}
@@ -0,0 +1,87 @@
+package com.biblioteca.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de uma importação em massa de livros.
+ * Linhas com erro não interrompem a importação; cada uma é relatada em {@code erros}.
+ */
+public class BookImportResultDTO {
+
+    private int recebidos;
+    private int criados;
+    private List<RowError> erros = new ArrayList<>();
+
+    public void addError(int linha, String mensagem) {
+        erros.add(new RowError(linha, mensagem));
+    }
+
+    /**
+     * Acumula o resultado de um lote no resultado geral.
+     */
+    public void merge(BookImportResultDTO other) {
+        recebidos += other.recebidos;
+        criados += other.criados;
+        erros.addAll(other.erros);
+    }
+
+    // Getters and Setters
+
+    public int getRecebidos() {
+        return recebidos;
+    }
+
+    public void setRecebidos(int recebidos) {
+        this.recebidos = recebidos;
+    }
+
+    public int getCriados() {
+        return criados;
+    }
+
+    public void setCriados(int criados) {
+        this.criados = criados;
+    }
+
+    public List<RowError> getErros() {
+        return erros;
+    }
+
+    public void setErros(List<RowError> erros) {
+        this.erros = erros;
+    }
+
+    /**
+     * Erro de uma linha da importação. A numeração das linhas começa em 1.
+     */
+    public static class RowError {
+
+        private int linha;
+        private String mensagem;
+
+        public RowError() {
+        }
+
+        public RowError(int linha, String mensagem) {
+            this.linha = linha;
+            this.mensagem = mensagem;
+        }
+
+        public int getLinha() {
+            return linha;
+        }
+
+        public void setLinha(int linha) {
+            this.linha = linha;
+        }
+
+        public String getMensagem() {
+            return mensagem;
+        }
+
+        public void setMensagem(String mensagem) {
+            this.mensagem = mensagem;
+        }
+    }
+}
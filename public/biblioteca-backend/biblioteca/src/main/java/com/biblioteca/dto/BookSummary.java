@@ -0,0 +1,11 @@
+package com.biblioteca.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Livro como aparece nas listagens e na busca: só as colunas exibidas na lista, sem a coleção de autores
+ * (os nomes vêm do campo {@code autor}). Lido por projeção, sem carregar a entidade.
+ */
+public record BookSummary(Long id, String titulo, String autor, int paginas, boolean disponivel,
+                          LocalDate dataPublicacao, String pdfPath) {
+}
@@ -0,0 +1,13 @@
+package com.biblioteca.dto;
+
+import com.biblioteca.model.ChangeLogEntry;
+
+import java.time.Instant;
+
+/**
+ * Uma alteração do feed GET /changes. {@code dados} traz o estado atual do registro ({@link BookSummary} ou
+ * {@link AuthorSummary}); é nulo em exclusões e quando o registro já foi excluído por uma alteração posterior.
+ */
+public record ChangeDTO(long cursor, ChangeLogEntry.Tipo tipo, Long id, ChangeLogEntry.Operacao operacao,
+                        Instant registradoEm, Object dados) {
+}
@@ -0,0 +1,10 @@
+package com.biblioteca.dto;
+
+import java.util.List;
+
+/**
+ * Página do feed de alterações. {@code cursor} é o valor a enviar em {@code since} na próxima chamada
+ * (igual ao recebido quando não há novidades); {@code hasMore} indica que há mais alterações após esta página.
+ */
+public record ChangeFeedDTO(List<ChangeDTO> changes, long cursor, boolean hasMore) {
+}
@@ -0,0 +1,7 @@
+package com.biblioteca.dto;
+
+/**
+ * Quantidade de livros com um valor de faceta (um ano de publicação, uma disponibilidade, uma nacionalidade).
+ */
+public record FacetCount(String valor, long total) {
+}
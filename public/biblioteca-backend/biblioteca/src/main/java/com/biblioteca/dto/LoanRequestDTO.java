@@ -0,0 +1,17 @@
+package com.biblioteca.dto;
+
+/**
+ * Corpo (opcional) de POST /books/{id}/checkout.
+ */
+public class LoanRequestDTO {
+
+    private String leitor;
+
+    public String getLeitor() {
+        return leitor;
+    }
+
+    public void setLeitor(String leitor) {
+        this.leitor = leitor;
+    }
+}
@@ -0,0 +1,153 @@
+package com.biblioteca.dto;
+
+import com.biblioteca.model.PdfIngestion;
+
+import java.time.Instant;
+
+/**
+ * Situação do processamento do PDF de um livro (GET /books/{id}/pdf/status).
+ * Traz os metadados extraídos, mas não o texto.
+ */
+public class PdfIngestionStatusDTO {
+
+    private Long bookId;
+    private String hash;
+    private PdfIngestion.Status status;
+    private int tentativas;
+    private Integer paginas;
+    private String tituloPdf;
+    private String autorPdf;
+    private String assunto;
+    private String palavrasChave;
+    private String produtor;
+    private Instant dataCriacaoPdf;
+    private String mensagemErro;
+    private Instant atualizadoEm;
+
+    public PdfIngestionStatusDTO() {
+    }
+
+    public PdfIngestionStatusDTO(Long bookId, String hash, PdfIngestion.Status status, int tentativas, Integer paginas,
+                                 String tituloPdf, String autorPdf, String assunto, String palavrasChave,
+                                 String produtor, Instant dataCriacaoPdf, String mensagemErro, Instant atualizadoEm) {
+        this.bookId = bookId;
+        this.hash = hash;
+        this.status = status;
+        this.tentativas = tentativas;
+        this.paginas = paginas;
+        this.tituloPdf = tituloPdf;
+        this.autorPdf = autorPdf;
+        this.assunto = assunto;
+        this.palavrasChave = palavrasChave;
+        this.produtor = produtor;
+        this.dataCriacaoPdf = dataCriacaoPdf;
+        this.mensagemErro = mensagemErro;
+        this.atualizadoEm = atualizadoEm;
+    }
+
+    // Getters and Setters
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public PdfIngestion.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(PdfIngestion.Status status) {
+        this.status = status;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(int tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public Integer getPaginas() {
+        return paginas;
+    }
+
+    public void setPaginas(Integer paginas) {
+        this.paginas = paginas;
+    }
+
+    public String getTituloPdf() {
+        return tituloPdf;
+    }
+
+    public void setTituloPdf(String tituloPdf) {
+        this.tituloPdf = tituloPdf;
+    }
+
+    public String getAutorPdf() {
+        return autorPdf;
+    }
+
+    public void setAutorPdf(String autorPdf) {
+        this.autorPdf = autorPdf;
+    }
+
+    public String getAssunto() {
+        return assunto;
+    }
+
+    public void setAssunto(String assunto) {
+        this.assunto = assunto;
+    }
+
+    public String getPalavrasChave() {
+        return palavrasChave;
+    }
+
+    public void setPalavrasChave(String palavrasChave) {
+        this.palavrasChave = palavrasChave;
+    }
+
+    public String getProdutor() {
+        return produtor;
+    }
+
+    public void setProdutor(String produtor) {
+        this.produtor = produtor;
+    }
+
+    public Instant getDataCriacaoPdf() {
+        return dataCriacaoPdf;
+    }
+
+    public void setDataCriacaoPdf(Instant dataCriacaoPdf) {
+        this.dataCriacaoPdf = dataCriacaoPdf;
+    }
+
+    public String getMensagemErro() {
+        return mensagemErro;
+    }
+
+    public void setMensagemErro(String mensagemErro) {
+        this.mensagemErro = mensagemErro;
+    }
+
+    public Instant getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(Instant atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+}
@@ -2,15 +2,27 @@ package com.biblioteca.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
+/**
+ * Autores ficam no cache de segundo nível do Hibernate (região configurada em application.conf).
+ * Alterações e exclusões feitas pelo Hibernate invalidam a entrada automaticamente.
+ */
 @Entity
 @Table(name = "authors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors")
 public class Author {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+    @SequenceGenerator(name = "authors_seq", sequenceName = "authors_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -29,6 +41,16 @@ public class Author {
     @JsonBackReference
     private Set<Book> books = new HashSet<>();
 
+    // Versão para concorrência otimista e ETag; incrementada a cada alteração
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Momento da última alteração (cabeçalho Last-Modified)
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private Instant atualizadoEm;
+
     // Construtores
     public Author() {
     }
@@ -89,6 +111,22 @@ public class Author {
         this.books = books;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(Instant atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+
     @Override
     public String toString() {
         return "Author{" +
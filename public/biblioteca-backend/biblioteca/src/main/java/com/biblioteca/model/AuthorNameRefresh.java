@@ -0,0 +1,70 @@
+package com.biblioteca.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Atualização pendente da coluna {@code books.autor} após a renomeação de um autor.
+ * <p>
+ * O registro é gravado na mesma transação da renomeação e só é apagado quando todos os livros do autor
+ * foram atualizados, então uma falha ou reinicialização no meio do caminho não perde o trabalho.
+ * {@code ultimoBookId} guarda o progresso entre os lotes; {@code geracao} muda a cada nova renomeação
+ * e faz um processamento em andamento recomeçar do início.
+ */
+@Entity
+@Table(name = "author_name_refresh")
+public class AuthorNameRefresh {
+
+    @Id
+    @Column(name = "author_id")
+    private Long authorId;
+
+    @Column(nullable = false)
+    private long geracao;
+
+    /**
+     * Maior ID de livro já atualizado na geração atual (0 antes do primeiro lote).
+     */
+    @Column(name = "ultimo_book_id", nullable = false)
+    private long ultimoBookId;
+
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private Instant atualizadoEm;
+
+    // Construtor padrão (necessário para JPA)
+    public AuthorNameRefresh() {
+    }
+
+    public AuthorNameRefresh(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    /**
+     * Recomeça do primeiro livro, invalidando o progresso de um processamento anterior.
+     */
+    public void restart() {
+        this.geracao++;
+        this.ultimoBookId = 0;
+    }
+
+    // Getters e Setters
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public long getGeracao() {
+        return geracao;
+    }
+
+    public long getUltimoBookId() {
+        return ultimoBookId;
+    }
+
+    public Instant getAtualizadoEm() {
+        return atualizadoEm;
+    }
+}
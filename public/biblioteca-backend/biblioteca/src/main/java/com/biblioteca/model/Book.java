@@ -2,6 +2,12 @@ package com.biblioteca.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Check;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
@@ -11,15 +17,22 @@ import java.util.Set;
  * Mapeada para a tabela "books" no banco de dados.
  */
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+    // Apoiam a paginação por chave (ORDER BY id) combinada com os filtros da listagem.
+    @Index(name = "idx_books_disponivel_id", columnList = "disponivel, id"),
+    @Index(name = "idx_books_data_publicacao_id", columnList = "dataPublicacao, id")
+})
+@Check(constraints = "exemplares_disponiveis >= 0 and exemplares_disponiveis <= exemplares")
 public class Book {
 
     /**
      * Identificador único do livro.
-     * É a chave primária da tabela e é gerado automaticamente.
+     * É a chave primária da tabela e é gerado pela sequência "books_seq".
+     * A alocação em blocos de 50 permite que o Hibernate agrupe os INSERTs em lote.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -36,9 +49,11 @@ public class Book {
     @JoinTable(
         name = "book_author",
         joinColumns = @JoinColumn(name = "book_id"),
-        inverseJoinColumns = @JoinColumn(name = "author_id")
+        inverseJoinColumns = @JoinColumn(name = "author_id"),
+        indexes = @Index(name = "idx_book_author_author_book", columnList = "author_id, book_id")
     )
     @JsonManagedReference
+    @BatchSize(size = 50) // Nas listagens, carrega os autores de até 50 livros por consulta (evita N+1)
     private Set<Author> authors = new HashSet<>();
 
     /**
@@ -50,11 +65,28 @@ public class Book {
 
     /**
      * Indica se o livro está disponível para empréstimo?
-     * Não pode ser nulo.
+     * Não pode ser nulo. Acompanha {@link #exemplaresDisponiveis} (verdadeiro enquanto houver exemplar livre)
+     * e, como ele, não é gravado pela atualização da entidade.
      */
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private boolean disponivel;
 
+    /**
+     * Número de exemplares do livro no acervo.
+     */
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("1")
+    private int exemplares = 1;
+
+    /**
+     * Exemplares não emprestados. Só muda por UPDATEs condicionais no banco (empréstimo, devolução e
+     * alteração do total, ver BookRepository), nunca por leitura-alteração-gravação da entidade,
+     * para que empréstimos simultâneos não emprestem o mesmo exemplar duas vezes.
+     */
+    @Column(name = "exemplares_disponiveis", nullable = false, updatable = false)
+    @ColumnDefault("1")
+    private int exemplaresDisponiveis = 1;
+
     /**
      * Data de publicação do livro.
      * Não pode ser nulo.
@@ -69,6 +101,21 @@ public class Book {
     @Column(length = 500)
     private String pdfPath;
 
+    /**
+     * Versão do registro para controle de concorrência otimista.
+     * Incrementada pelo Hibernate a cada alteração (inclusive da lista de autores) e usada no ETag.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    /**
+     * Momento da última alteração, enviado no cabeçalho Last-Modified.
+     */
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private Instant atualizadoEm;
+
     // Construtor padrão (necessário para JPA)
     public Book() {
     }
@@ -78,6 +125,9 @@ public class Book {
         this.titulo = titulo;
         this.paginas = paginas;
         this.disponivel = disponivel;
+        // Indisponível sem empréstimos = sem exemplares; nunca exemplares "emprestados" sem Loan.
+        this.exemplares = disponivel ? 1 : 0;
+        this.exemplaresDisponiveis = this.exemplares;
         this.dataPublicacao = dataPublicacao;
         this.pdfPath = pdfPath;
     }
@@ -132,6 +182,22 @@ public class Book {
         this.disponivel = disponivel;
     }
 
+    public int getExemplares() {
+        return exemplares;
+    }
+
+    public void setExemplares(int exemplares) {
+        this.exemplares = exemplares;
+    }
+
+    public int getExemplaresDisponiveis() {
+        return exemplaresDisponiveis;
+    }
+
+    public void setExemplaresDisponiveis(int exemplaresDisponiveis) {
+        this.exemplaresDisponiveis = exemplaresDisponiveis;
+    }
+
     public LocalDate getDataPublicacao() {
         return dataPublicacao;
     }
@@ -148,6 +214,22 @@ public class Book {
         this.pdfPath = pdfPath;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(Instant atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+
     /**
      * Sobrescreve o método toString para fornecer uma representação em string do objeto Book.
      * Útil para depuração e logs.
@@ -160,6 +242,8 @@ public class Book {
                ", authors=" + authors +
                ", paginas=" + paginas +
                ", disponivel=" + disponivel +
+               ", exemplares=" + exemplares +
+               ", exemplaresDisponiveis=" + exemplaresDisponiveis +
                ", dataPublicacao=" + dataPublicacao +
                ", pdfPath='" + pdfPath + '\'' +
                '}';
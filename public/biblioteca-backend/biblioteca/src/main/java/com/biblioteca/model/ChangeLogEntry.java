@@ -0,0 +1,94 @@
+package com.biblioteca.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Registro de uma alteração de livro ou autor, publicado em GET /changes.
+ * <p>
+ * A linha é gravada na mesma transação da alteração, ainda sem {@code posicao}. A posição (o cursor do feed)
+ * só é atribuída depois do commit, em ordem, por {@link com.biblioteca.service.ChangeFeedService}: assim uma
+ * transação que demora a confirmar nunca recebe um cursor menor que o de uma alteração já entregue aos clientes.
+ */
+@Entity
+@Table(name = "change_log", indexes = {
+    // Leitura do feed (posicao > :since) e busca das linhas ainda sem posição (posicao is null, por id).
+    @Index(name = "idx_change_log_posicao_id", columnList = "posicao, id")
+})
+public class ChangeLogEntry {
+
+    public enum Tipo {
+        LIVRO, AUTOR
+    }
+
+    public enum Operacao {
+        CRIADO, ATUALIZADO, EXCLUIDO
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_log_seq")
+    @SequenceGenerator(name = "change_log_seq", sequenceName = "change_log_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Posição no feed, crescente na ordem em que as alterações se tornam visíveis. Nula até ser atribuída.
+     */
+    private Long posicao;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Tipo tipo;
+
+    @Column(name = "entidade_id", nullable = false)
+    private Long entidadeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Operacao operacao;
+
+    @CreationTimestamp
+    @Column(name = "registrado_em", nullable = false)
+    private Instant registradoEm;
+
+    // Construtor padrão (necessário para JPA)
+    public ChangeLogEntry() {
+    }
+
+    public ChangeLogEntry(Tipo tipo, Long entidadeId, Operacao operacao) {
+        this.tipo = tipo;
+        this.entidadeId = entidadeId;
+        this.operacao = operacao;
+    }
+
+    // Getters e Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPosicao() {
+        return posicao;
+    }
+
+    public void setPosicao(Long posicao) {
+        this.posicao = posicao;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getEntidadeId() {
+        return entidadeId;
+    }
+
+    public Operacao getOperacao() {
+        return operacao;
+    }
+
+    public Instant getRegistradoEm() {
+        return registradoEm;
+    }
+}
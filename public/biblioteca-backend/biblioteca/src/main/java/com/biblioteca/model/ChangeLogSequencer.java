@@ -0,0 +1,40 @@
+package com.biblioteca.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Linha única com a última posição atribuída no feed de alterações. Bloqueada durante a atribuição,
+ * serializa o sequenciamento entre threads e instâncias da aplicação.
+ */
+@Entity
+@Table(name = "change_log_sequencer")
+public class ChangeLogSequencer {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "ultima_posicao", nullable = false)
+    private long ultimaPosicao;
+
+    // Construtor padrão (necessário para JPA)
+    public ChangeLogSequencer() {
+    }
+
+    public ChangeLogSequencer(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public long getUltimaPosicao() {
+        return ultimaPosicao;
+    }
+
+    public void setUltimaPosicao(long ultimaPosicao) {
+        this.ultimaPosicao = ultimaPosicao;
+    }
+}
@@ -0,0 +1,80 @@
+package com.biblioteca.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Empréstimo de um exemplar de livro. Fica ativo até a devolução ({@code devolvidoEm} preenchido).
+ * A baixa e a reposição do exemplar em {@code books.exemplares_disponiveis} acontecem na mesma transação
+ * do registro e da devolução (ver {@link com.biblioteca.service.LoanService}).
+ */
+@Entity
+@Table(name = "loans", indexes = {
+    // Empréstimos ativos de um livro (devolvido_em nulo), em ordem.
+    @Index(name = "idx_loans_book_devolvido", columnList = "book_id, devolvido_em")
+})
+public class Loan {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loans_seq")
+    @SequenceGenerator(name = "loans_seq", sequenceName = "loans_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "book_id", nullable = false)
+    @JsonIgnore
+    private Book book;
+
+    /**
+     * Quem retirou o exemplar (opcional).
+     */
+    @Column(length = 255)
+    private String leitor;
+
+    @Column(name = "emprestado_em", nullable = false)
+    private Instant emprestadoEm;
+
+    @Column(name = "devolvido_em")
+    private Instant devolvidoEm;
+
+    // Construtor padrão (necessário para JPA)
+    public Loan() {
+    }
+
+    public Loan(Book book, String leitor, Instant emprestadoEm) {
+        this.book = book;
+        this.leitor = leitor;
+        this.emprestadoEm = emprestadoEm;
+    }
+
+    // Getters e Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+
+    /**
+     * ID do livro, sem inicializar a associação.
+     */
+    public Long getBookId() {
+        return book == null ? null : book.getId();
+    }
+
+    public String getLeitor() {
+        return leitor;
+    }
+
+    public Instant getEmprestadoEm() {
+        return emprestadoEm;
+    }
+
+    public Instant getDevolvidoEm() {
+        return devolvidoEm;
+    }
+}
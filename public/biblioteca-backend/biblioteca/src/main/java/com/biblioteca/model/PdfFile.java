@@ -0,0 +1,88 @@
+package com.biblioteca.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Arquivo PDF armazenado por conteúdo (SHA-256).
+ * Livros com PDFs idênticos apontam para o mesmo arquivo; {@code referencias} conta quantos livros o usam
+ * e, ao chegar a zero, o arquivo é removido do disco.
+ */
+@Entity
+@Table(name = "pdf_files")
+public class PdfFile {
+
+    /**
+     * Hash SHA-256 do conteúdo, em hexadecimal minúsculo.
+     */
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    /**
+     * Tamanho do arquivo em bytes.
+     */
+    @Column(nullable = false)
+    private long tamanho;
+
+    /**
+     * Quantidade de livros que apontam para este arquivo.
+     */
+    @Column(nullable = false)
+    private int referencias;
+
+    @CreationTimestamp
+    @Column(name = "criado_em", updatable = false)
+    private Instant criadoEm;
+
+    // Construtor padrão (necessário para JPA)
+    public PdfFile() {
+    }
+
+    public PdfFile(String hash, long tamanho, int referencias) {
+        this.hash = hash;
+        this.tamanho = tamanho;
+        this.referencias = referencias;
+    }
+
+    // Getters e Setters
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public long getTamanho() {
+        return tamanho;
+    }
+
+    public void setTamanho(long tamanho) {
+        this.tamanho = tamanho;
+    }
+
+    public int getReferencias() {
+        return referencias;
+    }
+
+    public void setReferencias(int referencias) {
+        this.referencias = referencias;
+    }
+
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+
+    @Override
+    public String toString() {
+        return "PdfFile{" +
+               "hash='" + hash + '\'' +
+               ", tamanho=" + tamanho +
+               ", referencias=" + referencias +
+               '}';
+    }
+}
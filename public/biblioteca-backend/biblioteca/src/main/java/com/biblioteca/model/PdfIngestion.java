@@ -0,0 +1,231 @@
+package com.biblioteca.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Processamento em segundo plano do PDF de um livro: contagem de páginas, metadados e texto extraídos.
+ * Há no máximo um registro por livro; um novo upload reinicia o processamento.
+ * O texto fica nesta tabela (e não em "books") para não pesar nas consultas de livros,
+ * e alimenta a busca textual (ver schema-postgresql.sql).
+ */
+@Entity
+@Table(name = "pdf_ingestions", indexes = {
+    // O varredor busca os trabalhos pendentes ou travados por status e data.
+    @Index(name = "idx_pdf_ingestions_status_atualizado", columnList = "status, atualizado_em"),
+    @Index(name = "idx_pdf_ingestions_hash", columnList = "hash")
+})
+public class PdfIngestion {
+
+    public enum Status {
+        PENDENTE, PROCESSANDO, CONCLUIDO, ERRO
+    }
+
+    /**
+     * ID do livro a que o PDF pertence.
+     */
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    /**
+     * Hash SHA-256 do PDF processado (ver {@link PdfFile}).
+     */
+    @Column(nullable = false, length = 64)
+    private String hash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    private int tentativas;
+
+    private Integer paginas;
+
+    // Metadados do dicionário de informações do documento, quando presentes.
+    @Column(name = "titulo_pdf", length = 1000)
+    private String tituloPdf;
+
+    @Column(name = "autor_pdf", length = 1000)
+    private String autorPdf;
+
+    @Column(length = 1000)
+    private String assunto;
+
+    @Column(name = "palavras_chave", length = 1000)
+    private String palavrasChave;
+
+    @Column(length = 1000)
+    private String produtor;
+
+    @Column(name = "data_criacao_pdf")
+    private Instant dataCriacaoPdf;
+
+    /**
+     * Texto simples extraído do PDF, limitado por biblioteca.pdf.max-text-chars.
+     * Não faz parte da resposta de status (ver {@link com.biblioteca.dto.PdfIngestionStatusDTO}).
+     */
+    @Column(columnDefinition = "text")
+    private String texto;
+
+    @Column(name = "mensagem_erro", length = 1000)
+    private String mensagemErro;
+
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private Instant atualizadoEm;
+
+    // Construtor padrão (necessário para JPA)
+    public PdfIngestion() {
+    }
+
+    public PdfIngestion(Long bookId, String hash) {
+        this.bookId = bookId;
+        this.hash = hash;
+        this.status = Status.PENDENTE;
+    }
+
+    /**
+     * Volta ao estado inicial para processar outro PDF.
+     */
+    public void reset(String hash) {
+        this.hash = hash;
+        this.status = Status.PENDENTE;
+        this.tentativas = 0;
+        this.paginas = null;
+        this.tituloPdf = null;
+        this.autorPdf = null;
+        this.assunto = null;
+        this.palavrasChave = null;
+        this.produtor = null;
+        this.dataCriacaoPdf = null;
+        this.texto = null;
+        this.mensagemErro = null;
+    }
+
+    /**
+     * Copia o resultado de outro processamento do mesmo conteúdo.
+     */
+    public void copyResultFrom(PdfIngestion other) {
+        this.paginas = other.paginas;
+        this.tituloPdf = other.tituloPdf;
+        this.autorPdf = other.autorPdf;
+        this.assunto = other.assunto;
+        this.palavrasChave = other.palavrasChave;
+        this.produtor = other.produtor;
+        this.dataCriacaoPdf = other.dataCriacaoPdf;
+        this.texto = other.texto;
+    }
+
+    // Getters e Setters
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(int tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public Integer getPaginas() {
+        return paginas;
+    }
+
+    public void setPaginas(Integer paginas) {
+        this.paginas = paginas;
+    }
+
+    public String getTituloPdf() {
+        return tituloPdf;
+    }
+
+    public void setTituloPdf(String tituloPdf) {
+        this.tituloPdf = tituloPdf;
+    }
+
+    public String getAutorPdf() {
+        return autorPdf;
+    }
+
+    public void setAutorPdf(String autorPdf) {
+        this.autorPdf = autorPdf;
+    }
+
+    public String getAssunto() {
+        return assunto;
+    }
+
+    public void setAssunto(String assunto) {
+        this.assunto = assunto;
+    }
+
+    public String getPalavrasChave() {
+        return palavrasChave;
+    }
+
+    public void setPalavrasChave(String palavrasChave) {
+        this.palavrasChave = palavrasChave;
+    }
+
+    public String getProdutor() {
+        return produtor;
+    }
+
+    public void setProdutor(String produtor) {
+        this.produtor = produtor;
+    }
+
+    public Instant getDataCriacaoPdf() {
+        return dataCriacaoPdf;
+    }
+
+    public void setDataCriacaoPdf(Instant dataCriacaoPdf) {
+        this.dataCriacaoPdf = dataCriacaoPdf;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+
+    public String getMensagemErro() {
+        return mensagemErro;
+    }
+
+    public void setMensagemErro(String mensagemErro) {
+        this.mensagemErro = mensagemErro;
+    }
+
+    public Instant getAtualizadoEm() {
+        return atualizadoEm;
+    }
+}
@@ -0,0 +1,35 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.model.AuthorNameRefresh;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Fila persistente da propagação de nomes de autores para {@code books.autor}.
+ * As alterações de progresso e a conclusão só valem para a geração lida pelo worker.
+ */
+@Repository
+public interface AuthorNameRefreshRepository extends JpaRepository<AuthorNameRefresh, Long> {
+
+    @Modifying
+    @Query("""
+            update AuthorNameRefresh r set r.ultimoBookId = :ultimoBookId, r.atualizadoEm = :now
+            where r.authorId = :authorId and r.geracao = :geracao
+            """)
+    int advance(@Param("authorId") Long authorId, @Param("geracao") long geracao,
+                @Param("ultimoBookId") long ultimoBookId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from AuthorNameRefresh r where r.authorId = :authorId and r.geracao = :geracao")
+    int finish(@Param("authorId") Long authorId, @Param("geracao") long geracao);
+
+    @Query("select r.authorId from AuthorNameRefresh r where r.atualizadoEm < :before order by r.atualizadoEm")
+    List<Long> findAuthorIdsUpdatedBefore(@Param("before") Instant before, Limit limit);
+}
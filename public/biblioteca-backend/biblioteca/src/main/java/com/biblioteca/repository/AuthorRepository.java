@@ -1,12 +1,54 @@
 package com.biblioteca.repository;
 
+import com.biblioteca.dto.AuthorSuggestion;
+import com.biblioteca.dto.AuthorSummary;
 import com.biblioteca.model.Author;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
+    // Resultado no cache de consultas; qualquer escrita na tabela authors o invalida.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Author> findByName(String name);
+
+    // Paginação por chave: próxima página a partir do último ID recebido, só com as colunas da listagem.
+    @Query("""
+            select new com.biblioteca.dto.AuthorSummary(a.id, a.name, a.dataNascimento, a.nacionalidade)
+            from Author a where a.id > :after order by a.id
+            """)
+    List<AuthorSummary> findSummariesAfter(@Param("after") Long after, Limit limit);
+
+    @Query("""
+            select new com.biblioteca.dto.AuthorSummary(a.id, a.name, a.dataNascimento, a.nacionalidade)
+            from Author a where a.id in :ids
+            """)
+    List<AuthorSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Carga do índice de sugestões (AuthorSuggestionIndex): nome e número de livros de cada autor.
+    @Query("""
+            select new com.biblioteca.dto.AuthorSuggestion(a.id, a.name, count(b.id))
+            from Author a left join a.books b
+            group by a.id, a.name
+            """)
+    List<AuthorSuggestion> findSuggestions();
+
+    // Busca textual sobre nome e biografia (coluna gerada search_vector, índice GIN): IDs por relevância.
+    @Query(value = """
+            SELECT a.id FROM authors a, websearch_to_tsquery('portuguese', :q) query
+            WHERE a.search_vector @@ query
+            ORDER BY ts_rank_cd(a.search_vector, query) DESC, a.id
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<Long> searchIds(@Param("q") String q, @Param("limit") int limit, @Param("offset") int offset);
 }
@@ -1,17 +1,311 @@
 package com.biblioteca.repository;
 
+import com.biblioteca.dto.BookSummary;
+import com.biblioteca.dto.FacetCount;
 import com.biblioteca.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Interface de repositório para a entidade Book.
  * Estende JpaRepository para fornecer operações CRUD básicas e funcionalidades de paginação e ordenação.
  * O primeiro parâmetro é o tipo da entidade (Book) e o segundo é o tipo da chave primária (Long).
+ * Estende também JpaSpecificationExecutor para as consultas filtradas de {@link BookSpecifications}
+ * e {@link BookSummaryRepository} para as listagens por projeção.
  */
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>, BookSummaryRepository {
     // Métodos CRUD básicos são fornecidos automaticamente pelo JpaRepository.
     // Você pode adicionar métodos de consulta personalizados aqui, se necessário.
-}
 
+    /**
+     * Versões do livro e de seus autores, para validar ETag/Last-Modified sem carregar a entidade.
+     * {@code authorsVersions} lista os pares {@code autorId:versão} ordenados pelo ID (ver {@code ResourceVersion}).
+     */
+    interface VersionView {
+        Long getVersion();
+
+        String getAuthorsVersions();
+
+        Instant getAtualizadoEm();
+
+        Instant getAuthorsAtualizadoEm();
+    }
+
+    @Query("""
+            select b.version as version,
+                   listagg(cast(a.id as String) || ':' || cast(coalesce(a.version, 0) as String), ',')
+                       within group (order by a.id) as authorsVersions,
+                   b.atualizadoEm as atualizadoEm, max(a.atualizadoEm) as authorsAtualizadoEm
+            from Book b left join b.authors a
+            where b.id = :id
+            group by b.id, b.version, b.atualizadoEm
+            """)
+    Optional<VersionView> findVersionById(@Param("id") Long id);
+
+    /**
+     * Busca um livro já com os autores carregados na mesma consulta (join fetch),
+     * para a leitura de detalhe que sempre serializa a coleção.
+     */
+    @EntityGraph(attributePaths = "authors")
+    Optional<Book> findWithAuthorsById(Long id);
+
+    /**
+     * Busca textual sobre título e autores (coluna gerada search_vector, índice GIN, ver schema-postgresql.sql)
+     * e sobre o texto e metadados extraídos dos PDFs (pdf_ingestions.search_vector).
+     * Aceita a sintaxe de websearch_to_tsquery: palavras, "frases", OR e -exclusão.
+     * Retorna só os IDs, ordenados por relevância; um livro encontrado pelas duas fontes fica com a maior nota.
+     * Os dados de cada livro vêm de {@link #findSummariesByIdIn}.
+     */
+    @Query(value = """
+            WITH query AS (SELECT websearch_to_tsquery('portuguese', :q) AS q),
+            matches AS (
+                SELECT b.id, ts_rank_cd(b.search_vector, query.q) AS rank
+                FROM books b, query WHERE b.search_vector @@ query.q
+                UNION ALL
+                SELECT p.book_id, ts_rank_cd(p.search_vector, query.q)
+                FROM pdf_ingestions p, query WHERE p.search_vector @@ query.q
+            )
+            SELECT id FROM matches
+            GROUP BY id
+            ORDER BY max(rank) DESC, id
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<Long> searchIds(@Param("q") String q, @Param("limit") int limit, @Param("offset") int offset);
+
+    @Query("""
+            select new com.biblioteca.dto.BookSummary(b.id, b.titulo, b.autor, b.paginas, b.disponivel,
+                   b.dataPublicacao, b.pdfPath)
+            from Book b where b.id in :ids
+            """)
+    List<BookSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Empresta um exemplar: decrementa os disponíveis só se ainda houver algum. A verificação e a baixa
+     * acontecem no mesmo UPDATE, então requisições simultâneas nunca emprestam o mesmo exemplar duas vezes,
+     * e a linha fica bloqueada apenas até o commit da transação curta do empréstimo.
+     * Retorna 0 se não houver exemplar disponível (ou o livro não existir).
+     */
+    @Modifying
+    @Query("""
+            update Book b set b.exemplaresDisponiveis = b.exemplaresDisponiveis - 1,
+                   b.disponivel = case when b.exemplaresDisponiveis > 1 then true else false end,
+                   b.version = b.version + 1, b.atualizadoEm = :now
+            where b.id = :id and b.exemplaresDisponiveis > 0
+            """)
+    int checkoutCopy(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Devolve um exemplar ao acervo, sem ultrapassar o total de exemplares.
+     */
+    @Modifying
+    @Query("""
+            update Book b set b.exemplaresDisponiveis = b.exemplaresDisponiveis + 1, b.disponivel = true,
+                   b.version = b.version + 1, b.atualizadoEm = :now
+            where b.id = :id and b.exemplaresDisponiveis < b.exemplares
+            """)
+    int returnCopy(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Altera o total de exemplares preservando os emprestados. Retorna 0 se o novo total for menor
+     * que o número de exemplares emprestados no momento.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Book b set b.exemplaresDisponiveis = b.exemplaresDisponiveis + :total - b.exemplares,
+                   b.exemplares = :total,
+                   b.disponivel = case when b.exemplaresDisponiveis + :total - b.exemplares > 0 then true else false end,
+                   b.version = b.version + 1, b.atualizadoEm = :now
+            where b.id = :id and b.exemplares - b.exemplaresDisponiveis <= :total
+            """)
+    int resizeCopies(@Param("id") Long id, @Param("total") int total, @Param("now") Instant now);
+
+    /**
+     * Dos livros informados, os que ainda têm exemplares na estante (alvo de {@link #withdrawShelfCopies}).
+     */
+    @Query("select b.id from Book b where b.id in :ids and b.exemplaresDisponiveis > 0 order by b.id")
+    List<Long> findIdsWithShelfCopies(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retira do acervo os exemplares na estante dos livros informados, em um único UPDATE: o total passa a ser
+     * o número de emprestados e o livro fica indisponível. As devoluções seguintes voltam a disponibilizá-lo.
+     */
+    @Modifying
+    @Query("""
+            update Book b set b.exemplares = b.exemplares - b.exemplaresDisponiveis, b.exemplaresDisponiveis = 0,
+                   b.disponivel = false, b.version = b.version + 1, b.atualizadoEm = :now
+            where b.id in :ids and b.exemplaresDisponiveis > 0
+            """)
+    int withdrawShelfCopies(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Dos livros informados, os que mudariam com o novo total e comportam seus empréstimos ativos
+     * (alvo de {@link #resizeCopiesIn}).
+     */
+    @Query("""
+            select b.id from Book b
+            where b.id in :ids and b.exemplares <> :total and b.exemplares - b.exemplaresDisponiveis <= :total
+            order by b.id
+            """)
+    List<Long> findIdsResizableTo(@Param("ids") Collection<Long> ids, @Param("total") int total);
+
+    /**
+     * Versão em massa de {@link #resizeCopies}: mesmo cálculo e mesma condição, num único UPDATE.
+     */
+    @Modifying
+    @Query("""
+            update Book b set b.exemplaresDisponiveis = b.exemplaresDisponiveis + :total - b.exemplares,
+                   b.exemplares = :total,
+                   b.disponivel = case when b.exemplaresDisponiveis + :total - b.exemplares > 0 then true else false end,
+                   b.version = b.version + 1, b.atualizadoEm = :now
+            where b.id in :ids and b.exemplares - b.exemplaresDisponiveis <= :total
+            """)
+    int resizeCopiesIn(@Param("ids") Collection<Long> ids, @Param("total") int total, @Param("now") Instant now);
+
+    @Query("select b.pdfPath from Book b where b.id in :ids and b.pdfPath is not null")
+    List<String> findPdfPathsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Remove de uma vez os vínculos dos livros informados com seus autores. O espaço de cache "book_author"
+     * preserva o cache de segundo nível de autores.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book_author"))
+    @Query(value = "DELETE FROM book_author WHERE book_id IN (:ids)", nativeQuery = true)
+    int deleteAuthorLinks(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Exclui os livros informados em um único DELETE, sem carregá-los. Vínculos com autores, empréstimos e
+     * processamentos de PDF devem ser removidos antes (ver BookBulkService).
+     */
+    @Modifying
+    @Query("delete from Book b where b.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Exemplares disponíveis após um empréstimo ou devolução, lidos na mesma transação (a linha já está
+     * bloqueada pelo UPDATE), para saber se a disponibilidade do livro mudou.
+     */
+    @Query("select b.exemplaresDisponiveis from Book b where b.id = :id")
+    int findExemplaresDisponiveisById(@Param("id") Long id);
+
+    // Contagens das facetas (ver BookFacetService): do acervo inteiro, para a recontagem completa,
+    // e só dos livros informados, para ajustar as contagens em exclusões e alterações em massa.
+
+    /**
+     * Não lê nenhuma linha; só fixa a leitura consistente da recontagem antes das contagens. O PostgreSQL fixa o
+     * estado na primeira instrução da transação, o H2 no primeiro acesso a cada tabela, então todas são citadas.
+     */
+    @Query("select count(b) from Book b join b.authors a where 1 = 0")
+    long openFacetSnapshot();
+
+    @Query("""
+            select new com.biblioteca.dto.FacetCount(cast(year(b.dataPublicacao) as String), count(b))
+            from Book b group by year(b.dataPublicacao)
+            """)
+    List<FacetCount> countByAnoPublicacao();
+
+    @Query("""
+            select new com.biblioteca.dto.FacetCount(cast(year(b.dataPublicacao) as String), count(b))
+            from Book b where b.id in :ids group by year(b.dataPublicacao)
+            """)
+    List<FacetCount> countByAnoPublicacaoIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new com.biblioteca.dto.FacetCount(case when b.disponivel = true then 'true' else 'false' end, count(b))
+            from Book b group by b.disponivel
+            """)
+    List<FacetCount> countByDisponivel();
+
+    @Query("""
+            select new com.biblioteca.dto.FacetCount(case when b.disponivel = true then 'true' else 'false' end, count(b))
+            from Book b where b.id in :ids group by b.disponivel
+            """)
+    List<FacetCount> countByDisponivelIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new com.biblioteca.dto.FacetCount(a.nacionalidade, count(distinct b.id))
+            from Book b join b.authors a where a.nacionalidade is not null group by a.nacionalidade
+            """)
+    List<FacetCount> countByNacionalidade();
+
+    @Query("""
+            select new com.biblioteca.dto.FacetCount(a.nacionalidade, count(distinct b.id))
+            from Book b join b.authors a where a.nacionalidade is not null and b.id in :ids group by a.nacionalidade
+            """)
+    List<FacetCount> countByNacionalidadeIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Nacionalidades dos livros de um autor, considerando também os coautores (mudança de nacionalidade do autor).
+     */
+    @Query("""
+            select new com.biblioteca.dto.FacetCount(a.nacionalidade, count(distinct b.id))
+            from Book b join b.authors a
+            where a.nacionalidade is not null
+              and b.id in (select ba.id from Author author join author.books ba where author.id = :authorId)
+            group by a.nacionalidade
+            """)
+    List<FacetCount> countByNacionalidadeOfAuthor(@Param("authorId") Long authorId);
+
+    /**
+     * Próximo lote de livros de um autor, em ordem de ID, a partir do índice (author_id, book_id) de book_author.
+     */
+    @Query(value = """
+            SELECT ba.book_id FROM book_author ba
+            WHERE ba.author_id = :authorId AND ba.book_id > :after
+            ORDER BY ba.book_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findBookIdsByAuthor(@Param("authorId") Long authorId, @Param("after") long after, @Param("limit") int limit);
+
+    /**
+     * Recalcula a coluna autor dos livros informados a partir dos nomes atuais, em um único UPDATE.
+     * Livros cuja coluna já está correta não são tocados, o que torna a operação segura para repetir.
+     * Os demais recebem nova versão, de modo que uma alteração concorrente carregada antes não sobrescreve
+     * o nome corrigido (falha com 409/412). O espaço de cache "books" limita a invalidação do cache de
+     * segundo nível a esta tabela, preservando o cache de autores.
+     * Os nomes são ordenados pelos bytes em UTF-8 (a ordem da collation "C"), não pela collation do banco, para
+     * coincidir com {@code BookService.joinAuthorNames}; com outra ordem, cada renomeação regravaria livros já
+     * corretos e a coluna mudaria conforme quem a escreveu por último.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books"))
+    @Query(value = """
+            UPDATE books SET
+                autor = (SELECT string_agg(a.name, ', ' ORDER BY convert_to(a.name, 'UTF8'), a.id)
+                         FROM book_author ba JOIN authors a ON a.id = ba.author_id
+                         WHERE ba.book_id = books.id),
+                version = version + 1,
+                atualizado_em = :now
+            WHERE id IN (:ids)
+              AND autor IS DISTINCT FROM (SELECT string_agg(a.name, ', ' ORDER BY convert_to(a.name, 'UTF8'), a.id)
+                                          FROM book_author ba JOIN authors a ON a.id = ba.author_id
+                                          WHERE ba.book_id = books.id)
+            """, nativeQuery = true)
+    int refreshAuthorNames(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Percorre todos os livros em ordem de ID usando um cursor do banco.
+     * As linhas chegam em lotes do tamanho do fetch size, sem carregar a tabela inteira em memória.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Book> streamAllByOrderByIdAsc();
+}
@@ -0,0 +1,61 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.dto.BookFilter;
+import com.biblioteca.model.Book;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Predicados reutilizáveis para consultas de livros.
+ * Cada filtro só entra na consulta quando informado, para que o banco
+ * possa usar o índice correspondente.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    /**
+     * Restringe aos livros com ID maior que o cursor informado (paginação por chave).
+     */
+    public static Specification<Book> idAfter(Long after) {
+        return (root, query, cb) -> after == null ? null : cb.greaterThan(root.get("id"), after);
+    }
+
+    /**
+     * Restringe aos livros com os IDs informados.
+     */
+    public static Specification<Book> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Aplica os filtros opcionais de disponibilidade, intervalo de publicação e autor.
+     */
+    public static Specification<Book> matching(BookFilter filter) {
+        return (root, query, cb) -> {
+            if (filter == null) {
+                return null;
+            }
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getDisponivel() != null) {
+                predicates.add(cb.equal(root.get("disponivel"), filter.getDisponivel()));
+            }
+            if (filter.getDataPublicacaoDe() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dataPublicacao"), filter.getDataPublicacaoDe()));
+            }
+            if (filter.getDataPublicacaoAte() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("dataPublicacao"), filter.getDataPublicacaoAte()));
+            }
+            if (filter.getAuthorId() != null) {
+                // O ID do autor é único, então o join não duplica livros.
+                predicates.add(cb.equal(root.join("authors").get("id"), filter.getAuthorId()));
+            }
+            return predicates.isEmpty() ? null : cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
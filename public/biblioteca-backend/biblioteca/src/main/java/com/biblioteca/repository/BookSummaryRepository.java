@@ -0,0 +1,25 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.dto.BookSummary;
+import com.biblioteca.model.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Consultas de {@link BookSummary} com os mesmos predicados de {@link BookSpecifications}.
+ * Implementada em {@link BookSummaryRepositoryImpl} e exposta por {@link BookRepository}.
+ */
+public interface BookSummaryRepository {
+
+    /**
+     * Até {@code limit} resumos de livros que atendem à especificação, em ordem crescente de ID.
+     */
+    List<BookSummary> findSummaries(Specification<Book> spec, int limit);
+
+    /**
+     * Até {@code limit} IDs de livros que atendem à especificação, em ordem crescente de ID, bloqueando as linhas
+     * até o fim da transação (SELECT ... FOR UPDATE). Usada pelas operações em massa, que alteram as linhas logo depois.
+     */
+    List<Long> findIdsForUpdate(Specification<Book> spec, int limit);
+}
@@ -0,0 +1,59 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.dto.BookSummary;
+import com.biblioteca.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Seleciona apenas as colunas de {@link BookSummary} (construtor na própria consulta). Nenhuma entidade
+ * é criada, então não há snapshot para dirty checking nem proxies de autores.
+ */
+class BookSummaryRepositoryImpl implements BookSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookSummary> findSummaries(Specification<Book> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookSummary> query = cb.createQuery(BookSummary.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(cb.construct(BookSummary.class,
+                root.get("id"), root.get("titulo"), root.get("autor"), root.get("paginas"),
+                root.get("disponivel"), root.get("dataPublicacao"), root.get("pdfPath")));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Long> findIdsForUpdate(Specification<Book> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(root.get("id"));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,48 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.model.ChangeLogEntry;
+import com.biblioteca.model.ChangeLogSequencer;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    /**
+     * Alterações já confirmadas que ainda não receberam posição no feed, na ordem de gravação.
+     */
+    @Query("select c from ChangeLogEntry c where c.posicao is null order by c.id")
+    List<ChangeLogEntry> findUnsequenced(Limit limit);
+
+    boolean existsByPosicaoIsNull();
+
+    @Query("select c from ChangeLogEntry c where c.posicao > :since order by c.posicao")
+    List<ChangeLogEntry> findSequencedAfter(@Param("since") long since, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ChangeLogSequencer s where s.id = :id")
+    Optional<ChangeLogSequencer> findSequencerForUpdate(@Param("id") Integer id);
+
+    /**
+     * Cria a linha do sequenciador se ela ainda não existir; instâncias iniciando juntas não colidem na chave.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "change_log_sequencer"))
+    @Query(value = """
+            INSERT INTO change_log_sequencer (id, ultima_posicao) VALUES (:id, 0)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertSequencerIfAbsent(@Param("id") Integer id);
+}
@@ -0,0 +1,38 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.model.Loan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LoanRepository extends JpaRepository<Loan, Long> {
+
+    /**
+     * Registra a devolução se o empréstimo pertencer ao livro e ainda estiver ativo.
+     * Retorna 0 para empréstimos inexistentes ou já devolvidos, inclusive por uma requisição simultânea.
+     */
+    @Modifying
+    @Query("""
+            update Loan l set l.devolvidoEm = :now
+            where l.id = :loanId and l.book.id = :bookId and l.devolvidoEm is null
+            """)
+    int markReturned(@Param("loanId") Long loanId, @Param("bookId") Long bookId, @Param("now") Instant now);
+
+    @Query("select l from Loan l where l.book.id = :bookId and l.devolvidoEm is null order by l.emprestadoEm, l.id")
+    List<Loan> findActiveByBookId(@Param("bookId") Long bookId);
+
+    @Modifying
+    @Query("delete from Loan l where l.book.id = :bookId")
+    int deleteByBookId(@Param("bookId") Long bookId);
+
+    @Modifying
+    @Query("delete from Loan l where l.book.id in :bookIds")
+    int deleteByBookIdIn(@Param("bookIds") Collection<Long> bookIds);
+}
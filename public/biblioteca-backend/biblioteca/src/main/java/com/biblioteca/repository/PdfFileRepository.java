@@ -0,0 +1,64 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.model.PdfFile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Contagem de referências dos PDFs armazenados por conteúdo.
+ * As alterações são UPDATEs atômicos no banco, sem ler e regravar a entidade.
+ */
+@Repository
+public interface PdfFileRepository extends JpaRepository<PdfFile, String> {
+
+    /**
+     * Cria a linha do PDF com zero referências se ela ainda não existir. Dois primeiros uploads simultâneos do
+     * mesmo conteúdo não colidem na chave: o segundo espera o primeiro e não insere nada.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "pdf_files"))
+    @Query(value = """
+            INSERT INTO pdf_files (hash, tamanho, referencias, criado_em)
+            VALUES (:hash, :tamanho, 0, CURRENT_TIMESTAMP)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash, @Param("tamanho") long tamanho);
+
+    @Modifying
+    @Query("update PdfFile p set p.referencias = p.referencias + 1 where p.hash = :hash")
+    int incrementReferences(@Param("hash") String hash);
+
+    @Modifying
+    @Query("update PdfFile p set p.referencias = p.referencias - 1 where p.hash = :hash and p.referencias > 0")
+    int decrementReferences(@Param("hash") String hash);
+
+    @Modifying
+    @Query("delete from PdfFile p where p.hash = :hash and p.referencias = 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+
+    /**
+     * Remove {@code count} referências de cada PDF informado, sem passar de zero (exclusão em massa de livros).
+     */
+    @Modifying
+    @Query("""
+            update PdfFile p set p.referencias = case when p.referencias > :count then p.referencias - :count else 0 end
+            where p.hash in :hashes
+            """)
+    int decrementReferences(@Param("hashes") Collection<String> hashes, @Param("count") int count);
+
+    @Query("select p.hash from PdfFile p where p.hash in :hashes and p.referencias = 0")
+    List<String> findUnreferenced(@Param("hashes") Collection<String> hashes);
+
+    @Modifying
+    @Query("delete from PdfFile p where p.hash in :hashes and p.referencias = 0")
+    int deleteUnreferenced(@Param("hashes") Collection<String> hashes);
+}
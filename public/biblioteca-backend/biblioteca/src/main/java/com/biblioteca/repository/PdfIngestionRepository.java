@@ -0,0 +1,80 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.dto.PdfIngestionStatusDTO;
+import com.biblioteca.model.PdfIngestion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fila persistente do processamento de PDFs. O status no banco é a fonte de verdade:
+ * trabalhos que não couberem na fila em memória continuam PENDENTE até o próximo ciclo do varredor.
+ */
+@Repository
+public interface PdfIngestionRepository extends JpaRepository<PdfIngestion, Long> {
+
+    /**
+     * Passa o trabalho de PENDENTE para PROCESSANDO. Retorna 0 se outro worker já o assumiu.
+     */
+    @Modifying
+    @Query("""
+            update PdfIngestion p set p.status = :processing, p.tentativas = p.tentativas + 1, p.atualizadoEm = :now
+            where p.bookId = :bookId and p.status = :pending
+            """)
+    int claim(@Param("bookId") Long bookId, @Param("pending") PdfIngestion.Status pending,
+              @Param("processing") PdfIngestion.Status processing, @Param("now") Instant now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<PdfIngestion> findForUpdateByBookId(Long bookId);
+
+    Optional<PdfIngestion> findFirstByHashAndStatusAndBookIdNot(String hash, PdfIngestion.Status status, Long bookId);
+
+    @Query("select p.bookId from PdfIngestion p where p.status = :status and p.atualizadoEm < :before order by p.atualizadoEm")
+    List<Long> findBookIdsByStatus(@Param("status") PdfIngestion.Status status, @Param("before") Instant before, Limit limit);
+
+    /**
+     * Devolve à fila os trabalhos que ficaram em PROCESSANDO além do prazo (por exemplo, após uma reinicialização).
+     * Trabalhos que já esgotaram as tentativas ficam para {@link #failStale}.
+     */
+    @Modifying
+    @Query("""
+            update PdfIngestion p set p.status = :pending, p.atualizadoEm = :now
+            where p.status = :processing and p.atualizadoEm < :before and p.tentativas < :maxTentativas
+            """)
+    int requeueStale(@Param("processing") PdfIngestion.Status processing, @Param("pending") PdfIngestion.Status pending,
+                     @Param("before") Instant before, @Param("maxTentativas") int maxTentativas, @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            update PdfIngestion p set p.status = :error, p.mensagemErro = :mensagem, p.atualizadoEm = :now
+            where p.status = :processing and p.atualizadoEm < :before and p.tentativas >= :maxTentativas
+            """)
+    int failStale(@Param("processing") PdfIngestion.Status processing, @Param("error") PdfIngestion.Status error,
+                  @Param("mensagem") String mensagem, @Param("before") Instant before,
+                  @Param("maxTentativas") int maxTentativas, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from PdfIngestion p where p.bookId in :bookIds")
+    int deleteByBookIdIn(@Param("bookIds") Collection<Long> bookIds);
+
+    /**
+     * Status do processamento sem carregar o texto extraído.
+     */
+    @Query("""
+            select new com.biblioteca.dto.PdfIngestionStatusDTO(p.bookId, p.hash, p.status, p.tentativas, p.paginas,
+                   p.tituloPdf, p.autorPdf, p.assunto, p.palavrasChave, p.produtor, p.dataCriacaoPdf,
+                   p.mensagemErro, p.atualizadoEm)
+            from PdfIngestion p where p.bookId = :bookId
+            """)
+    Optional<PdfIngestionStatusDTO> findStatusByBookId(@Param("bookId") Long bookId);
+}
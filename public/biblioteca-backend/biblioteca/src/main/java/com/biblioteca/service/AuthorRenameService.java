@@ -0,0 +1,183 @@
+package com.biblioteca.service;
+
+import com.biblioteca.model.AuthorNameRefresh;
+import com.biblioteca.model.ChangeLogEntry;
+import com.biblioteca.repository.AuthorNameRefreshRepository;
+import com.biblioteca.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Propaga a renomeação de um autor para a coluna desnormalizada {@code books.autor}.
+ * <p>
+ * A renomeação só registra o trabalho em {@code author_name_refresh}; após o commit, um worker percorre os
+ * livros do autor em lotes por ID e atualiza cada lote com um único UPDATE, em transações curtas. Só as linhas
+ * do lote ficam bloqueadas, e por pouco tempo, mesmo para autores com dezenas de milhares de livros.
+ * O progresso é gravado a cada lote; se o processamento for interrompido, o varredor o retoma de onde parou,
+ * e repetir um lote não altera livros que já estão corretos.
+ */
+@Service
+public class AuthorRenameService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorRenameService.class);
+
+    @Autowired
+    private AuthorNameRefreshRepository authorNameRefreshRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${biblioteca.authors.rename-chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${biblioteca.authors.rename-stale-after:PT1M}")
+    private Duration staleAfter;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    // Autores já entregues ao worker e ainda não concluídos, para o varredor não enfileirá-los de novo.
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public AuthorRenameService(@Value("${biblioteca.authors.rename-queue-capacity:100}") int queueCapacity) {
+        // Um único worker: os lotes já são set-based e vários em paralelo só disputariam as mesmas linhas.
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("author-rename-");
+        executor.initialize();
+    }
+
+    /**
+     * Registra a atualização dos livros do autor renomeado. Deve ser chamado na transação da renomeação;
+     * o processamento só começa depois do commit. Uma nova renomeação durante o processamento o reinicia.
+     */
+    public void schedule(Long authorId) {
+        AuthorNameRefresh refresh = authorNameRefreshRepository.findById(authorId)
+                .orElseGet(() -> new AuthorNameRefresh(authorId));
+        refresh.restart();
+        authorNameRefreshRepository.save(refresh);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(authorId);
+            }
+        });
+    }
+
+    /**
+     * Retoma os trabalhos sem progresso recente: os que não couberam na fila ou foram interrompidos.
+     */
+    @Scheduled(fixedDelayString = "${biblioteca.authors.rename-sweep-interval:PT1M}")
+    public void sweep() {
+        int capacity = executor.getThreadPoolExecutor().getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<Long> pending = authorNameRefreshRepository.findAuthorIdsUpdatedBefore(Instant.now().minus(staleAfter), Limit.of(capacity));
+        for (Long authorId : pending) {
+            if (!submit(authorId)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Entrega o trabalho ao worker. Retorna {@code false} se a fila estiver cheia; o registro permanece
+     * no banco para o próximo ciclo do varredor.
+     */
+    private boolean submit(Long authorId) {
+        if (!queued.add(authorId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh(authorId);
+                } catch (Exception e) {
+                    logger.error("Falha ao atualizar os livros do autor ID {}: {}", authorId, e.getMessage());
+                } finally {
+                    queued.remove(authorId);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            queued.remove(authorId);
+            logger.info("Fila de atualização de autores cheia; autor ID {} aguarda o próximo ciclo", authorId);
+            return false;
+        }
+    }
+
+    /**
+     * Processa os lotes até o fim. Se o autor for renomeado de novo no meio do caminho, a geração muda
+     * e o processamento recomeça do primeiro livro com o nome mais recente.
+     */
+    void refresh(Long authorId) {
+        AuthorNameRefresh refresh;
+        while ((refresh = authorNameRefreshRepository.findById(authorId).orElse(null)) != null) {
+            long geracao = refresh.getGeracao();
+            long after = refresh.getUltimoBookId();
+            int updated = 0;
+            Long last;
+            while ((last = refreshChunk(authorId, geracao, after)) != null) {
+                if (last < 0) {
+                    break;
+                }
+                after = last;
+                updated++;
+            }
+            if (last == null) {
+                logger.info("Livros do autor ID {} atualizados ({} lotes)", authorId, updated);
+                return;
+            }
+            logger.info("Autor ID {} renomeado durante a atualização dos livros; recomeçando", authorId);
+        }
+    }
+
+    /**
+     * Atualiza o próximo lote em uma transação própria. Retorna o último ID do lote, {@code null} quando não
+     * há mais livros (trabalho concluído) ou -1 quando o registro mudou de geração (ou foi removido).
+     */
+    private Long refreshChunk(Long authorId, long geracao, long after) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = bookRepository.findBookIdsByAuthor(authorId, after, chunkSize);
+            if (ids.isEmpty()) {
+                return authorNameRefreshRepository.finish(authorId, geracao) == 1 ? null : -1L;
+            }
+            Instant now = Instant.now();
+            bookRepository.refreshAuthorNames(ids, now);
+            changeFeedService.recordAll(ChangeLogEntry.Tipo.LIVRO, ids, ChangeLogEntry.Operacao.ATUALIZADO);
+            long last = ids.get(ids.size() - 1);
+            return authorNameRefreshRepository.advance(authorId, geracao, last, now) == 1 ? last : -1L;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        // Trabalhos na fila ou em andamento continuam registrados e são retomados pelo varredor.
+        executor.shutdown();
+    }
+}
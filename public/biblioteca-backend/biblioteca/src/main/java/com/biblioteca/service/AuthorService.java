@@ -1,14 +1,26 @@
 package com.biblioteca.service;
 
 import com.biblioteca.dto.AuthorDTO;
+import com.biblioteca.dto.AuthorSuggestion;
+import com.biblioteca.dto.AuthorSummary;
+import com.biblioteca.exception.ConflictException;
+import com.biblioteca.exception.PreconditionFailedException;
 import com.biblioteca.model.Author;
+import com.biblioteca.model.ChangeLogEntry;
 import com.biblioteca.repository.AuthorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -19,44 +31,149 @@ public class AuthorService {
     @Autowired
     private AuthorRepository authorRepository;
 
+    @Autowired
+    private AuthorRenameService authorRenameService;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private AuthorSuggestionIndex authorSuggestionIndex;
+
+    @Autowired
+    private BookFacetService bookFacetService;
+
+    private final SingleFlight<Long, Optional<Author>> authorReads;
+
+    public AuthorService(@Value("${biblioteca.reads.coalesce-window:PT0.5S}") Duration coalesceWindow,
+                         MeterRegistry meterRegistry) {
+        this.authorReads = new SingleFlight<>("author", coalesceWindow, () -> changeFeedService.generation(), meterRegistry);
+    }
+
+    @Transactional
     public Author createAuthor(AuthorDTO authorDTO) {
         Author author = new Author();
         author.setName(authorDTO.getName());
         author.setDataNascimento(authorDTO.getDataNascimento());
         author.setNacionalidade(authorDTO.getNacionalidade());
         author.setBiografia(authorDTO.getBiografia());
-        logger.info("Criando autor: {}", author.getName());
-        return authorRepository.save(author);
+        return createAuthor(author);
     }
     
+    @Transactional
     public Author createAuthor(Author author) {
-        logger.info("Criando autor: {}", author.getName());
-        return authorRepository.save(author);
+        logger.debug("Criando autor: {}", author.getName());
+        Author savedAuthor = authorRepository.save(author);
+        changeFeedService.record(ChangeLogEntry.Tipo.AUTOR, savedAuthor.getId(), ChangeLogEntry.Operacao.CRIADO);
+        authorSuggestionIndex.put(savedAuthor.getId(), savedAuthor.getName());
+        return savedAuthor;
+    }
+
+    /**
+     * Lista autores por paginação por chave: até {@code limit} autores com ID maior que {@code after}.
+     * Lê apenas as colunas de {@link AuthorSummary}, sem carregar entidades.
+     */
+    @Transactional(readOnly = true)
+    public List<AuthorSummary> getAuthors(Long after, int limit) {
+        logger.debug("Buscando autores após o ID {} (limite {})", after, limit);
+        return authorRepository.findSummariesAfter(after == null ? 0L : after,
+                Limit.of(BookService.clampLimit(limit)));
     }
 
-    public List<Author> getAllAuthors() {
-        logger.info("Buscando todos os autores");
-        return authorRepository.findAll();
+    /**
+     * Busca textual de autores por nome e biografia, ordenada por relevância.
+     *
+     * @param page página a partir de 0
+     */
+    @Transactional(readOnly = true)
+    public List<AuthorSummary> searchAuthors(String q, int page, int size) {
+        logger.debug("Buscando autores por '{}' (página {})", q, page);
+        int limit = BookService.clampLimit(size);
+        int offset = BookService.searchOffset(page, limit);
+        if (q == null || q.isBlank() || offset >= BookService.MAX_SEARCH_RESULTS) {
+            return List.of();
+        }
+        List<Long> ids = authorRepository.searchIds(q, Math.min(limit, BookService.MAX_SEARCH_RESULTS - offset), offset);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return BookService.inIdOrder(ids, authorRepository.findSummariesByIdIn(ids), AuthorSummary::id);
     }
 
+    /**
+     * Autor por ID; leituras simultâneas compartilham a mesma carga, como em {@link BookService#getBookById}.
+     */
     public Optional<Author> getAuthorById(Long id) {
-        logger.info("Buscando autor com ID: {}", id);
-        return authorRepository.findById(id);
+        logger.debug("Buscando autor com ID: {}", id);
+        return authorReads.get(id, () -> authorRepository.findById(id));
+    }
+
+    /**
+     * Sugestões para o preenchimento automático, a partir do índice em memória (sem consultar o banco).
+     */
+    public List<AuthorSuggestion> suggestAuthors(String prefix, int limit) {
+        return authorSuggestionIndex.suggest(prefix, limit);
     }
 
-    public Optional<Author> updateAuthor(Long id, AuthorDTO authorDetails) {
-        logger.info("Atualizando autor com ID: {}", id);
+    public Optional<Author> getAuthorByName(String name) {
+        logger.debug("Buscando autor com nome: {}", name);
+        return authorRepository.findByName(name);
+    }
+
+    /**
+     * ETag e Last-Modified de um autor, a partir da coluna de versão.
+     */
+    public static ResourceVersion versionOf(Author author) {
+        long version = author.getVersion() == null ? 0 : author.getVersion();
+        return ResourceVersion.of("author", author.getId(), version, author.getAtualizadoEm());
+    }
+
+    /**
+     * Atualiza o autor. Com {@code ifMatch} informado, só aplica a alteração se o ETag atual corresponder.
+     * Alterações concorrentes resultam em 412 (com If-Match) ou 409 (sem If-Match).
+     */
+    @Transactional
+    public Optional<Author> updateAuthor(Long id, AuthorDTO authorDetails, String ifMatch) {
+        logger.debug("Atualizando autor com ID: {}", id);
         return authorRepository.findById(id).map(author -> {
+            if (!versionOf(author).matches(ifMatch)) {
+                throw new PreconditionFailedException("O autor com ID " + id + " foi alterado por outra requisição.");
+            }
+            boolean renamed = !Objects.equals(author.getName(), authorDetails.getName());
+            // Lido antes dos setters: a consulta faria o flush da nova nacionalidade.
+            BookFacetService.Counts nationalitiesBefore = Objects.equals(author.getNacionalidade(), authorDetails.getNacionalidade())
+                    ? null : bookFacetService.nationalitiesOfAuthorBooks(id);
             author.setName(authorDetails.getName());
             author.setDataNascimento(authorDetails.getDataNascimento());
             author.setNacionalidade(authorDetails.getNacionalidade());
             author.setBiografia(authorDetails.getBiografia());
-            return authorRepository.save(author);
+            Author updatedAuthor;
+            try {
+                updatedAuthor = authorRepository.saveAndFlush(author);
+            } catch (OptimisticLockingFailureException e) {
+                String message = "O autor com ID " + id + " foi alterado por outra requisição.";
+                throw ifMatch != null ? new PreconditionFailedException(message) : new ConflictException(message);
+            }
+            changeFeedService.record(ChangeLogEntry.Tipo.AUTOR, id, ChangeLogEntry.Operacao.ATUALIZADO);
+            if (nationalitiesBefore != null) {
+                bookFacetService.record(nationalitiesBefore, bookFacetService.nationalitiesOfAuthorBooks(id));
+            }
+            if (renamed) {
+                // A coluna books.autor dos livros do autor é atualizada em segundo plano, após o commit.
+                authorRenameService.schedule(id);
+                authorSuggestionIndex.put(id, updatedAuthor.getName());
+            }
+            return updatedAuthor;
         });
     }
 
+    @Transactional
     public void deleteAuthor(Long id) {
-        logger.info("Deletando autor com ID: {}", id);
-        authorRepository.deleteById(id);
+        logger.debug("Deletando autor com ID: {}", id);
+        authorRepository.findById(id).ifPresent(author -> {
+            authorRepository.delete(author);
+            changeFeedService.record(ChangeLogEntry.Tipo.AUTOR, id, ChangeLogEntry.Operacao.EXCLUIDO);
+            authorSuggestionIndex.remove(id);
+        });
     }
 }
@@ -0,0 +1,209 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.AuthorSuggestion;
+import com.biblioteca.repository.AuthorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória dos nomes de autores para o preenchimento automático (GET /authors/suggest).
+ * <p>
+ * Cada nome é normalizado (sem acentos, minúsculo, pontuação trocada por espaço) e indexado a partir do início
+ * de cada palavra num mapa ordenado, então "assis", "machado de" e "ASSÍS" encontram "Machado de Assis".
+ * A consulta percorre só a faixa de chaves com o prefixo e devolve os autores com mais livros, sem ir ao banco.
+ * <p>
+ * O índice é carregado na inicialização e mantido por {@link AuthorService} após o commit de cada criação,
+ * renomeação ou exclusão. O número de livros (só usado na ordenação) e os autores alterados por outras
+ * instâncias são atualizados pela reconstrução periódica ({@code biblioteca.authors.suggest.refresh-interval}).
+ */
+@Service
+public class AuthorSuggestionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorSuggestionIndex.class);
+
+    // Máximo de sugestões por consulta, independente do que o cliente pedir.
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Mais livros primeiro; empates pelo nome e depois pelo ID, para uma ordem estável.
+    private static final Comparator<AuthorSuggestion> RANKING = Comparator.comparingLong(AuthorSuggestion::livros).reversed()
+            .thenComparing(AuthorSuggestion::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(AuthorSuggestion::id);
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    // Alterações recebidas durante uma reconstrução (vazio = autor excluído), reaplicadas sobre o novo índice.
+    private Map<Long, Optional<String>> pending;
+
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Até {@code limit} autores cujo nome tem uma palavra começando por {@code prefix}, com mais livros primeiro.
+     */
+    public List<AuthorSuggestion> suggest(String prefix, int limit) {
+        String key = prefix == null ? "" : normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        Snapshot current = snapshot;
+        Set<Long> seen = new HashSet<>();
+        PriorityQueue<AuthorSuggestion> top = new PriorityQueue<>(size + 1, RANKING.reversed());
+        for (Long id : current.keys.subMap(key, key + Character.MAX_VALUE).values()) {
+            AuthorSuggestion author = current.authors.get(id);
+            if (author == null || !seen.add(id)) {
+                continue;
+            }
+            top.add(author);
+            if (top.size() > size) {
+                top.poll();
+            }
+        }
+        List<AuthorSuggestion> result = new ArrayList<>(top);
+        result.sort(RANKING);
+        return result;
+    }
+
+    /**
+     * Inclui ou renomeia um autor, preservando o número de livros conhecido. Dentro de uma transação,
+     * só vale após o commit.
+     */
+    public void put(Long id, String name) {
+        afterCommit(() -> apply(id, Optional.of(name == null ? "" : name)));
+    }
+
+    /**
+     * Remove um autor do índice. Dentro de uma transação, só vale após o commit.
+     */
+    public void remove(Long id) {
+        afterCommit(() -> apply(id, Optional.empty()));
+    }
+
+    /**
+     * Recarrega nomes e número de livros de todos os autores numa única consulta e troca o índice de uma vez;
+     * as consultas continuam sendo atendidas pelo índice anterior enquanto isso.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${biblioteca.authors.suggest.refresh-interval:PT10M}",
+            initialDelayString = "${biblioteca.authors.suggest.refresh-interval:PT10M}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pending = new HashMap<>();
+            }
+            try {
+                Snapshot fresh = new Snapshot();
+                authorRepository.findSuggestions().forEach(fresh::put);
+                synchronized (this) {
+                    pending.forEach((id, name) -> fresh.apply(id, name));
+                    snapshot = fresh;
+                }
+                logger.info("Índice de sugestões de autores carregado com {} autores", fresh.authors.size());
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    private synchronized void apply(Long id, Optional<String> name) {
+        snapshot.apply(id, name);
+        if (pending != null) {
+            pending.put(id, name);
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * Minúsculas, sem acentos e com qualquer sequência de pontuação ou espaços reduzida a um espaço.
+     */
+    static String normalize(String text) {
+        String withoutMarks = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutMarks).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Autores por ID e chaves de busca ordenadas: o nome normalizado a partir do início de cada palavra,
+     * seguido de '\0' e do ID para que nomes iguais não colidam.
+     */
+    private static final class Snapshot {
+
+        private final Map<Long, AuthorSuggestion> authors = new ConcurrentHashMap<>();
+
+        private final ConcurrentSkipListMap<String, Long> keys = new ConcurrentSkipListMap<>();
+
+        void apply(Long id, Optional<String> name) {
+            if (name.isEmpty()) {
+                remove(id);
+                return;
+            }
+            AuthorSuggestion current = authors.get(id);
+            put(new AuthorSuggestion(id, name.get(), current == null ? 0 : current.livros()));
+        }
+
+        void put(AuthorSuggestion author) {
+            remove(author.id());
+            authors.put(author.id(), author);
+            keysOf(author).forEach(key -> keys.put(key, author.id()));
+        }
+
+        void remove(Long id) {
+            AuthorSuggestion previous = authors.remove(id);
+            if (previous != null) {
+                keysOf(previous).forEach(keys::remove);
+            }
+        }
+
+        private static List<String> keysOf(AuthorSuggestion author) {
+            String name = author.name() == null ? "" : normalize(author.name());
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < name.length(); i++) {
+                if (i == 0 || name.charAt(i - 1) == ' ') {
+                    keys.add(name.substring(i) + '\0' + author.id());
+                }
+            }
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.BookBulkRequestDTO;
+import com.biblioteca.dto.BookBulkResultDTO;
+import com.biblioteca.dto.BookBulkUpdateDTO;
+import com.biblioteca.dto.BookFilter;
+import com.biblioteca.exception.BadRequestException;
+import com.biblioteca.model.Book;
+import com.biblioteca.model.ChangeLogEntry;
+import com.biblioteca.repository.BookRepository;
+import com.biblioteca.repository.BookSpecifications;
+import com.biblioteca.repository.LoanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Exclusão e alteração em massa de livros (POST /books/bulk-delete e PATCH /books/bulk).
+ * <p>
+ * A seleção (IDs ou filtros da listagem) é percorrida em lotes de {@code biblioteca.bulk.chunk-size} livros,
+ * em ordem de ID, cada um numa transação curta: as linhas do lote são bloqueadas, alteradas com poucos
+ * comandos por conjunto (sem carregar as entidades) e liberadas no commit. Se um lote falhar, os anteriores
+ * permanecem gravados e o erro é devolvido ao cliente, que pode repetir a mesma requisição.
+ */
+@Service
+public class BookBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookBulkService.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PdfStorageService pdfStorageService;
+
+    @Autowired
+    private PdfIngestionService pdfIngestionService;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private BookFacetService bookFacetService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${biblioteca.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Exclui os livros selecionados com seus vínculos com autores, empréstimos e processamentos de PDF.
+     * PDFs que deixam de ser usados por qualquer livro são apagados após o commit de cada lote.
+     */
+    public BookBulkResultDTO deleteBooks(BookBulkRequestDTO request) {
+        validateSelection(request);
+        logger.info("Iniciando exclusão em massa de livros");
+        BookBulkResultDTO result = forEachChunk(request, this::deleteChunk);
+        logger.info("Exclusão em massa concluída: {} livros excluídos, {} PDFs removidos",
+                result.getAfetados(), result.getPdfsRemovidos());
+        return result;
+    }
+
+    /**
+     * Aplica aos livros selecionados a alteração descrita em {@link BookBulkUpdateDTO}.
+     */
+    public BookBulkResultDTO updateBooks(BookBulkUpdateDTO request) {
+        validateSelection(request);
+        if ((request.getDisponivel() == null) == (request.getExemplares() == null)) {
+            throw new BadRequestException("Informe exatamente uma alteração: disponivel ou exemplares.");
+        }
+        if (Boolean.TRUE.equals(request.getDisponivel())) {
+            throw new BadRequestException("A disponibilidade acompanha os exemplares: para repor exemplares, informe exemplares.");
+        }
+        if (request.getExemplares() != null && request.getExemplares() < 0) {
+            throw new BadRequestException("O número de exemplares não pode ser negativo.");
+        }
+        logger.info("Iniciando alteração em massa de livros");
+        BookBulkResultDTO result = request.getExemplares() != null
+                ? forEachChunk(request, ids -> resizeChunk(ids, request.getExemplares()))
+                : forEachChunk(request, this::withdrawChunk);
+        logger.info("Alteração em massa concluída: {} livros selecionados, {} alterados",
+                result.getSelecionados(), result.getAfetados());
+        return result;
+    }
+
+    private static void validateSelection(BookBulkRequestDTO request) {
+        BookFilter filter = request.getFilter();
+        if ((request.getIds() == null) == (filter == null)) {
+            throw new BadRequestException("Informe ids ou filter.");
+        }
+        if (request.getIds() != null && request.getIds().stream().allMatch(Objects::isNull)) {
+            throw new BadRequestException("A lista de ids está vazia.");
+        }
+        if (filter != null && filter.getDisponivel() == null && filter.getDataPublicacaoDe() == null
+                && filter.getDataPublicacaoAte() == null && filter.getAuthorId() == null) {
+            throw new BadRequestException("O filtro precisa de ao menos um critério.");
+        }
+    }
+
+    /**
+     * Percorre a seleção em lotes, em ordem de ID: a lista de IDs em fatias de {@code chunkSize}, ou o filtro
+     * por paginação por chave. Cada lote é escolhido e alterado na mesma transação, então os filtros valem
+     * para o estado das linhas no momento da alteração e IDs inexistentes são ignorados.
+     */
+    private BookBulkResultDTO forEachChunk(BookBulkRequestDTO request, Function<List<Long>, BookBulkResultDTO> action) {
+        BookBulkResultDTO result = new BookBulkResultDTO();
+        if (request.getIds() != null) {
+            List<Long> ids = request.getIds().stream().filter(Objects::nonNull).distinct().sorted().toList();
+            for (int start = 0; start < ids.size(); start += chunkSize) {
+                List<Long> slice = ids.subList(start, Math.min(start + chunkSize, ids.size()));
+                ChunkResult chunk = runChunk(BookSpecifications.idIn(slice), action);
+                if (chunk != null) {
+                    result.merge(chunk.result());
+                }
+            }
+            return result;
+        }
+        Specification<Book> matching = BookSpecifications.matching(request.getFilter());
+        Long after = null;
+        ChunkResult chunk;
+        while ((chunk = runChunk(matching.and(BookSpecifications.idAfter(after)), action)) != null) {
+            result.merge(chunk.result());
+            after = chunk.lastId();
+        }
+        return result;
+    }
+
+    /**
+     * Bloqueia até {@code chunkSize} livros da especificação e aplica a ação numa transação própria.
+     * Retorna {@code null} se nenhum livro for encontrado.
+     */
+    private ChunkResult runChunk(Specification<Book> spec, Function<List<Long>, BookBulkResultDTO> action) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = bookRepository.findIdsForUpdate(spec, chunkSize);
+            return ids.isEmpty() ? null : new ChunkResult(ids.get(ids.size() - 1), action.apply(ids));
+        });
+    }
+
+    private BookBulkResultDTO deleteChunk(List<Long> ids) {
+        BookBulkResultDTO result = new BookBulkResultDTO();
+        result.setSelecionados(ids.size());
+        result.setPdfsRemovidos(pdfStorageService.releaseAll(bookRepository.findPdfPathsByIdIn(ids)));
+        pdfIngestionService.cancelAll(ids);
+        result.setEmprestimosRemovidos(loanRepository.deleteByBookIdIn(ids));
+        bookFacetService.record(bookFacetService.countsOf(ids), null);
+        bookRepository.deleteAuthorLinks(ids);
+        result.setAfetados(bookRepository.deleteAllByIds(ids));
+        changeFeedService.recordAll(ChangeLogEntry.Tipo.LIVRO, ids, ChangeLogEntry.Operacao.EXCLUIDO);
+        return result;
+    }
+
+    private BookBulkResultDTO withdrawChunk(List<Long> ids) {
+        BookBulkResultDTO result = new BookBulkResultDTO();
+        result.setSelecionados(ids.size());
+        // As linhas já estão bloqueadas: os IDs escolhidos aqui são exatamente os que o UPDATE altera.
+        List<Long> changed = bookRepository.findIdsWithShelfCopies(ids);
+        if (!changed.isEmpty()) {
+            BookFacetService.Counts before = bookFacetService.availabilityOf(changed);
+            result.setAfetados(bookRepository.withdrawShelfCopies(changed, Instant.now()));
+            bookFacetService.record(before, bookFacetService.availabilityOf(changed));
+            changeFeedService.recordAll(ChangeLogEntry.Tipo.LIVRO, changed, ChangeLogEntry.Operacao.ATUALIZADO);
+        }
+        return result;
+    }
+
+    private BookBulkResultDTO resizeChunk(List<Long> ids, int total) {
+        BookBulkResultDTO result = new BookBulkResultDTO();
+        result.setSelecionados(ids.size());
+        List<Long> changed = bookRepository.findIdsResizableTo(ids, total);
+        if (!changed.isEmpty()) {
+            BookFacetService.Counts before = bookFacetService.availabilityOf(changed);
+            result.setAfetados(bookRepository.resizeCopiesIn(changed, total, Instant.now()));
+            bookFacetService.record(before, bookFacetService.availabilityOf(changed));
+            changeFeedService.recordAll(ChangeLogEntry.Tipo.LIVRO, changed, ChangeLogEntry.Operacao.ATUALIZADO);
+        }
+        return result;
+    }
+
+    private record ChunkResult(Long lastId, BookBulkResultDTO result) {
+    }
+}
@@ -0,0 +1,284 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.BookFacetsDTO;
+import com.biblioteca.dto.FacetCount;
+import com.biblioteca.model.Author;
+import com.biblioteca.model.Book;
+import com.biblioteca.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Contagens do acervo por ano de publicação, disponibilidade e nacionalidade dos autores (GET /books/facets).
+ * <p>
+ * As contagens ficam em memória e são ajustadas pelas próprias escritas: cada transação que cria, altera ou
+ * exclui livros (ou muda a nacionalidade de um autor) registra a diferença com {@link #record}, aplicada uma
+ * única vez após o commit. A resposta depende só do número de valores distintos, não do tamanho do acervo.
+ * <p>
+ * A recontagem completa ({@link #recount}: três GROUP BY numa mesma leitura consistente) roda na inicialização,
+ * periodicamente ({@code biblioteca.facets.rebuild-interval}) e sob demanda (POST /books/facets/rebuild).
+ * Ela corrige alterações feitas por outras instâncias ou direto no banco. A leitura é fixada por uma consulta
+ * que não lê nenhuma linha; as diferenças aplicadas a partir daí são reaplicadas sobre o resultado. Uma
+ * transação confirmada pouco antes dessa consulta, mas aplicada em memória só depois dela, fica contada duas
+ * vezes; uma confirmada enquanto a consulta roda e aplicada antes do seu fim fica de fora. As duas janelas
+ * duram uma consulta vazia e valem até a próxima recontagem.
+ */
+@Service
+public class BookFacetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookFacetService.class);
+
+    public enum Faceta {
+        ANO_PUBLICACAO, DISPONIVEL, NACIONALIDADE
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final TransactionTemplate snapshotTransaction;
+
+    // Guardados sob o monitor deste objeto.
+    private Counts counts = new Counts();
+
+    private Instant rebuiltAt;
+
+    // Diferenças aplicadas depois do início da leitura de uma recontagem, reaplicadas sobre o resultado dela.
+    private List<Counts> pending;
+
+    // Resposta pronta; descartada a cada alteração e montada de novo na próxima leitura.
+    private volatile BookFacetsDTO cached;
+
+    private final Object rebuildLock = new Object();
+
+    public BookFacetService(PlatformTransactionManager transactionManager) {
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    public BookFacetsDTO getFacets() {
+        BookFacetsDTO facets = cached;
+        if (facets != null) {
+            return facets;
+        }
+        synchronized (this) {
+            if (cached == null) {
+                cached = counts.toDTO(rebuiltAt);
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * Contribuição de um livro carregado: ano, disponibilidade e as nacionalidades (distintas) dos autores.
+     */
+    public Counts countsOf(Book book) {
+        Counts result = new Counts();
+        result.add(Faceta.ANO_PUBLICACAO, String.valueOf(book.getDataPublicacao().getYear()), 1);
+        result.add(Faceta.DISPONIVEL, String.valueOf(book.isDisponivel()), 1);
+        book.getAuthors().stream()
+                .map(Author::getNacionalidade)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(nacionalidade -> result.add(Faceta.NACIONALIDADE, nacionalidade, 1));
+        return result;
+    }
+
+    /**
+     * Contribuição dos livros informados, lida do banco com três consultas agregadas (operações em massa).
+     */
+    public Counts countsOf(Collection<Long> ids) {
+        Counts result = new Counts();
+        result.addAll(Faceta.ANO_PUBLICACAO, bookRepository.countByAnoPublicacaoIn(ids));
+        result.addAll(Faceta.DISPONIVEL, bookRepository.countByDisponivelIn(ids));
+        result.addAll(Faceta.NACIONALIDADE, bookRepository.countByNacionalidadeIn(ids));
+        return result;
+    }
+
+    /**
+     * Só a disponibilidade dos livros informados, para alterações em massa que não mudam ano nem autores.
+     */
+    public Counts availabilityOf(Collection<Long> ids) {
+        Counts result = new Counts();
+        result.addAll(Faceta.DISPONIVEL, bookRepository.countByDisponivelIn(ids));
+        return result;
+    }
+
+    /**
+     * Nacionalidades dos livros de um autor, para ajustar as contagens quando a nacionalidade dele muda.
+     */
+    public Counts nationalitiesOfAuthorBooks(Long authorId) {
+        Counts result = new Counts();
+        result.addAll(Faceta.NACIONALIDADE, bookRepository.countByNacionalidadeOfAuthor(authorId));
+        return result;
+    }
+
+    /**
+     * Um empréstimo levou o último exemplar ({@code disponivel = false}) ou uma devolução repôs o primeiro.
+     */
+    public void availabilityChanged(boolean disponivel) {
+        Counts delta = new Counts();
+        delta.add(Faceta.DISPONIVEL, String.valueOf(disponivel), 1);
+        delta.add(Faceta.DISPONIVEL, String.valueOf(!disponivel), -1);
+        record(null, delta);
+    }
+
+    /**
+     * Registra a troca de {@code before} por {@code after} (nulo na criação ou na exclusão). Dentro de uma
+     * transação, as diferenças se acumulam e só são aplicadas após o commit; num rollback, são descartadas.
+     */
+    public void record(Counts before, Counts after) {
+        Counts delta = new Counts();
+        if (after != null) {
+            delta.merge(after, 1);
+        }
+        if (before != null) {
+            delta.merge(before, -1);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(delta);
+            return;
+        }
+        Counts transactionDelta = (Counts) TransactionSynchronizationManager.getResource(this);
+        if (transactionDelta != null) {
+            transactionDelta.merge(delta, 1);
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, delta);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BookFacetService.this);
+                if (status == STATUS_COMMITTED) {
+                    apply(delta);
+                }
+            }
+        });
+    }
+
+    /**
+     * Recontagem sob demanda (POST /books/facets/rebuild): recontagem completa e as facetas resultantes.
+     */
+    public BookFacetsDTO rebuild() {
+        recount();
+        return getFacets();
+    }
+
+    /**
+     * Recontagem completa. As consultas rodam numa transação REPEATABLE READ, então as três facetas vêm do mesmo
+     * estado do banco; as leituras continuam atendidas pelas contagens anteriores até a troca. O estado é fixado
+     * antes das contagens, e só então as diferenças passam a ser guardadas para reaplicar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${biblioteca.facets.rebuild-interval:PT1H}",
+            initialDelayString = "${biblioteca.facets.rebuild-interval:PT1H}")
+    public void recount() {
+        synchronized (rebuildLock) {
+            try {
+                Counts fresh = snapshotTransaction.execute(status -> {
+                    bookRepository.openFacetSnapshot();
+                    // Commits anteriores já estão na leitura; os seguintes, só nas diferenças guardadas daqui em diante.
+                    synchronized (this) {
+                        pending = new ArrayList<>();
+                    }
+                    Counts result = new Counts();
+                    result.addAll(Faceta.ANO_PUBLICACAO, bookRepository.countByAnoPublicacao());
+                    result.addAll(Faceta.DISPONIVEL, bookRepository.countByDisponivel());
+                    result.addAll(Faceta.NACIONALIDADE, bookRepository.countByNacionalidade());
+                    return result;
+                });
+                synchronized (this) {
+                    pending.forEach(delta -> fresh.merge(delta, 1));
+                    counts = fresh;
+                    rebuiltAt = Instant.now();
+                    cached = null;
+                }
+                logger.info("Facetas do acervo recontadas: {} livros", fresh.total());
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    private synchronized void apply(Counts delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        counts.merge(delta, 1);
+        if (pending != null) {
+            pending.add(delta);
+        }
+        cached = null;
+    }
+
+    /**
+     * Quantidade de livros por valor de cada faceta. Usada tanto para as contagens totais quanto para as
+     * diferenças registradas pelas escritas (com valores negativos).
+     */
+    public static final class Counts {
+
+        private final Map<Faceta, Map<String, Long>> values = new EnumMap<>(Faceta.class);
+
+        void add(Faceta faceta, String valor, long quantidade) {
+            Map<String, Long> byValue = values.computeIfAbsent(faceta, key -> new HashMap<>());
+            if (byValue.merge(valor, quantidade, Long::sum) == 0) {
+                byValue.remove(valor);
+            }
+        }
+
+        void addAll(Faceta faceta, List<FacetCount> rows) {
+            rows.forEach(row -> add(faceta, row.valor(), row.total()));
+        }
+
+        void merge(Counts other, int sign) {
+            other.values.forEach((faceta, byValue) -> byValue.forEach((valor, quantidade) -> add(faceta, valor, sign * quantidade)));
+        }
+
+        boolean isEmpty() {
+            return values.values().stream().allMatch(Map::isEmpty);
+        }
+
+        long total() {
+            return values.getOrDefault(Faceta.DISPONIVEL, Map.of()).values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        BookFacetsDTO toDTO(Instant rebuiltAt) {
+            return new BookFacetsDTO(total(),
+                    sorted(Faceta.ANO_PUBLICACAO, Comparator.comparing(count -> Integer.valueOf(count.valor()))),
+                    sorted(Faceta.DISPONIVEL, Comparator.comparing(FacetCount::valor).reversed()),
+                    sorted(Faceta.NACIONALIDADE, Comparator.comparingLong(FacetCount::total).reversed()
+                            .thenComparing(FacetCount::valor)),
+                    rebuiltAt);
+        }
+
+        private List<FacetCount> sorted(Faceta faceta, Comparator<FacetCount> order) {
+            return values.getOrDefault(faceta, Map.of()).entrySet().stream()
+                    .filter(entry -> entry.getValue() > 0)
+                    .map(entry -> new FacetCount(entry.getKey(), entry.getValue()))
+                    .sorted(order)
+                    .toList();
+        }
+    }
+}
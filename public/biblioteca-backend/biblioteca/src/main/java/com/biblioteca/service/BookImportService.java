@@ -0,0 +1,111 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.BookDTO;
+import com.biblioteca.dto.BookImportResultDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Importação em massa de livros.
+ * Divide a entrada em lotes de {@code biblioteca.import.chunk-size} e grava cada lote
+ * numa transação própria por meio de {@link BookService#importChunk}. Se um lote falhar
+ * no banco, apenas as linhas daquele lote são relatadas como erro.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${biblioteca.import.chunk-size:500}")
+    private int chunkSize;
+
+    public BookImportResultDTO importBooks(List<BookDTO> books) {
+        logger.info("Iniciando importação de {} livros", books.size());
+        BookImportResultDTO result = new BookImportResultDTO();
+        for (int start = 0; start < books.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, books.size());
+            List<Integer> lines = IntStream.rangeClosed(start + 1, end).boxed().toList();
+            importChunk(books.subList(start, end), lines, result);
+        }
+        logger.info("Importação concluída: {} recebidos, {} criados", result.getRecebidos(), result.getCriados());
+        return result;
+    }
+
+    /**
+     * Importa livros em NDJSON (um objeto JSON por linha), lendo a entrada aos poucos.
+     * Linhas que não são JSON válido são relatadas como erro e a leitura continua.
+     */
+    public BookImportResultDTO importNdjson(InputStream in) throws IOException {
+        logger.info("Iniciando importação de livros em NDJSON");
+        ObjectReader reader = objectMapper.readerFor(BookDTO.class);
+        BookImportResultDTO result = new BookImportResultDTO();
+        List<BookDTO> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkLines = new ArrayList<>(chunkSize);
+        int line = 0;
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String json;
+            while ((json = lines.readLine()) != null) {
+                line++;
+                if (json.isBlank()) {
+                    continue;
+                }
+                BookDTO row;
+                try {
+                    row = reader.readValue(json);
+                } catch (JsonProcessingException e) {
+                    result.setRecebidos(result.getRecebidos() + 1);
+                    result.addError(line, "JSON inválido: " + e.getOriginalMessage());
+                    continue;
+                }
+                chunk.add(row);
+                chunkLines.add(line);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, chunkLines, result);
+                    chunk.clear();
+                    chunkLines.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, chunkLines, result);
+        }
+        logger.info("Importação concluída: {} recebidos, {} criados", result.getRecebidos(), result.getCriados());
+        return result;
+    }
+
+    private void importChunk(List<BookDTO> chunk, List<Integer> lines, BookImportResultDTO result) {
+        try {
+            result.merge(bookService.importChunk(chunk, lines));
+        } catch (RuntimeException e) {
+            logger.error("Falha ao gravar lote iniciado na linha {}: {}", lines.get(0), e.getMessage());
+            BookImportResultDTO failed = new BookImportResultDTO();
+            failed.setRecebidos(chunk.size());
+            for (Integer line : lines) {
+                failed.addError(line, "Falha ao gravar o lote: " + e.getMessage());
+            }
+            result.merge(failed);
+        }
+    }
+}
@@ -1,103 +1,515 @@
 package com.biblioteca.service;
 
 import com.biblioteca.dto.BookDTO;
+import com.biblioteca.dto.BookFilter;
+import com.biblioteca.dto.BookImportResultDTO;
+import com.biblioteca.dto.BookSummary;
 import com.biblioteca.model.Author;
 import com.biblioteca.model.Book;
-import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.model.ChangeLogEntry;
 import com.biblioteca.repository.BookRepository;
+import com.biblioteca.repository.BookSpecifications;
+import com.biblioteca.repository.LoanRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.biblioteca.exception.BadRequestException;
+import com.biblioteca.exception.ConflictException;
+import com.biblioteca.exception.PreconditionFailedException;
 import com.biblioteca.exception.ResourceNotFoundException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookService {
 
     private static final Logger logger = LoggerFactory.getLogger(BookService.class);
 
+    // Tamanho máximo de página aceito na listagem, independente do que o cliente pedir.
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Quantos resultados de busca podem ser paginados no total; páginas além disso voltam vazias.
+    public static final int MAX_SEARCH_RESULTS = 1000;
+
+    // A cada quantos livros exportados o contexto de persistência é limpo e a saída é descarregada.
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
+    private static final String WITHDRAWN_WITH_COPIES =
+            "Um livro indisponível não tem exemplares na estante: informe exemplares ou disponivel = false, não os dois.";
+
     @Autowired
     private BookRepository bookRepository;
 
     @Autowired
-    private AuthorRepository authorRepository;
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PdfStorageService pdfStorageService;
+
+    @Autowired
+    private PdfIngestionService pdfIngestionService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private BookFacetService bookFacetService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Leituras simultâneas do mesmo livro (GET /books/{id} de um título em destaque) fazem uma só consulta.
+    private final SingleFlight<Long, Optional<Book>> bookReads;
+
+    public BookService(@Value("${biblioteca.reads.coalesce-window:PT0.5S}") Duration coalesceWindow,
+                       MeterRegistry meterRegistry) {
+        this.bookReads = new SingleFlight<>("book", coalesceWindow, () -> changeFeedService.generation(), meterRegistry);
+    }
 
     @Transactional
     public Book createBook(BookDTO bookDTO) {
-        logger.info("Iniciando criação do livro: {}", bookDTO.getTitulo());
+        logger.debug("Iniciando criação do livro: {}", bookDTO.getTitulo());
 
         Book book = new Book();
-        book.setTitulo(bookDTO.getTitulo());
-        book.setPaginas(bookDTO.getPaginas());
-        book.setDisponivel(bookDTO.isDisponivel());
-        book.setDataPublicacao(bookDTO.getDataPublicacao());
+        applyFields(book, bookDTO);
+        applyCopies(book, bookDTO);
 
         if (bookDTO.getAuthorIds() != null && !bookDTO.getAuthorIds().isEmpty()) {
-            Set<Author> authors = bookDTO.getAuthorIds().stream()
-                    .map(authorId -> authorRepository.findById(authorId)
-                            .orElseThrow(() -> new ResourceNotFoundException("Autor não encontrado com o ID: " + authorId)))
-                    .collect(Collectors.toSet());
-            book.setAuthors(authors);
-
-                        String authorNames = authors.stream()
-                                                    .map(Author::getName)
-                                                    .collect(Collectors.joining(", "));
-                        book.setAutor(authorNames);        }
+            applyAuthors(book, bookDTO.getAuthorIds(), loadAuthors(bookDTO.getAuthorIds()));
+        }
 
         Book savedBook = bookRepository.save(book);
+        changeFeedService.record(ChangeLogEntry.Tipo.LIVRO, savedBook.getId(), ChangeLogEntry.Operacao.CRIADO);
+        bookFacetService.record(null, bookFacetService.countsOf(savedBook));
         logger.info("Livro '{}' criado com sucesso com ID: {}", savedBook.getTitulo(), savedBook.getId());
         return savedBook;
     }
 
-    public List<Book> getAllBooks() {
-        logger.info("Buscando todos os livros");
-        return bookRepository.findAll();
+    /**
+     * Grava um lote da importação em massa numa única transação.
+     * Os autores de todas as linhas são resolvidos com uma só consulta e os INSERTs saem em lote
+     * (ver hibernate.jdbc.batch_size). Linhas inválidas são relatadas e não impedem as demais.
+     *
+     * @param rows  livros do lote
+     * @param lines número (a partir de 1) de cada livro na entrada da importação, para o relatório de erros
+     */
+    @Transactional
+    public BookImportResultDTO importChunk(List<BookDTO> rows, List<Integer> lines) {
+        BookImportResultDTO result = new BookImportResultDTO();
+        result.setRecebidos(rows.size());
+
+        Map<Long, Author> authorsById = loadAuthors(rows.stream()
+                .filter(row -> row.getAuthorIds() != null)
+                .flatMap(row -> row.getAuthorIds().stream())
+                .toList());
+
+        List<Book> books = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            BookDTO row = rows.get(i);
+            String error = validateImportRow(row, authorsById);
+            if (error != null) {
+                result.addError(lines.get(i), error);
+                continue;
+            }
+            Book book = new Book();
+            applyFields(book, row);
+            applyCopies(book, row);
+            applyAuthors(book, row.getAuthorIds(), authorsById);
+            books.add(book);
+        }
+
+        bookRepository.saveAll(books);
+        changeFeedService.recordAll(ChangeLogEntry.Tipo.LIVRO, books.stream().map(Book::getId).toList(),
+                ChangeLogEntry.Operacao.CRIADO);
+        books.forEach(book -> bookFacetService.record(null, bookFacetService.countsOf(book)));
+        entityManager.flush();
+        entityManager.clear();
+        result.setCriados(books.size());
+        return result;
+    }
+
+    private static String validateImportRow(BookDTO row, Map<Long, Author> authorsById) {
+        if (row == null) {
+            return "Linha vazia.";
+        }
+        if (row.getTitulo() == null || row.getTitulo().isBlank()) {
+            return "O título é obrigatório.";
+        }
+        if (row.getTitulo().length() > 255) {
+            return "O título excede 255 caracteres.";
+        }
+        if (row.getDataPublicacao() == null) {
+            return "A data de publicação é obrigatória.";
+        }
+        if (row.getExemplares() != null && row.getExemplares() < 0) {
+            return "O número de exemplares não pode ser negativo.";
+        }
+        if (withdrawsWithCopies(row)) {
+            return WITHDRAWN_WITH_COPIES;
+        }
+        if (row.getAuthorIds() == null || row.getAuthorIds().isEmpty()) {
+            return "Informe ao menos um autor.";
+        }
+        for (Long authorId : row.getAuthorIds()) {
+            if (authorId == null || !authorsById.containsKey(authorId)) {
+                return "Autor não encontrado com o ID: " + authorId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lista livros por paginação por chave: retorna até {@code limit} livros com ID maior que {@code after},
+     * em ordem crescente de ID. O custo não depende da profundidade da página, ao contrário de OFFSET.
+     * Lê apenas as colunas de {@link BookSummary}, sem carregar entidades.
+     */
+    @Transactional(readOnly = true)
+    public List<BookSummary> getBooks(BookFilter filter, Long after, int limit) {
+        logger.debug("Buscando livros após o ID {} (limite {})", after, limit);
+        Specification<Book> spec = Specification.allOf(
+                BookSpecifications.idAfter(after),
+                BookSpecifications.matching(filter));
+        return bookRepository.findSummaries(spec, clampLimit(limit));
     }
 
+    /**
+     * Livro com autores. Leituras simultâneas do mesmo ID compartilham uma única consulta e o resultado é
+     * reaproveitado por uma janela curta, até a próxima alteração confirmada (ver {@link SingleFlight}).
+     * O livro retornado é compartilhado e não deve ser alterado.
+     */
     public Optional<Book> getBookById(Long id) {
-        logger.info("Buscando livro com ID: {}", id);
-        return bookRepository.findById(id);
+        logger.debug("Buscando livro com ID: {}", id);
+        return bookReads.get(id, () -> bookRepository.findWithAuthorsById(id));
+    }
+
+    /**
+     * Busca textual de livros por título, autores e conteúdo do PDF, ordenada por relevância.
+     * A busca devolve só os IDs; os resumos da página são lidos numa segunda consulta por chave primária.
+     *
+     * @param page página a partir de 0
+     */
+    @Transactional(readOnly = true)
+    public List<BookSummary> searchBooks(String q, int page, int size) {
+        logger.debug("Buscando livros por '{}' (página {})", q, page);
+        int limit = clampLimit(size);
+        int offset = searchOffset(page, limit);
+        if (q == null || q.isBlank() || offset >= MAX_SEARCH_RESULTS) {
+            return List.of();
+        }
+        List<Long> ids = bookRepository.searchIds(q, Math.min(limit, MAX_SEARCH_RESULTS - offset), offset);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return inIdOrder(ids, bookRepository.findSummariesByIdIn(ids), BookSummary::id);
+    }
+
+    /**
+     * Escreve o catálogo inteiro em NDJSON (um livro por linha) à medida que as linhas chegam do banco.
+     * O contexto de persistência é limpo periodicamente, então o uso de memória não cresce com a tabela.
+     *
+     * @return quantidade de livros exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportBooks(OutputStream out) throws IOException {
+        long count = exportBooks(out, objectMapper.writer().withRootValueSeparator("\n"));
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    /**
+     * Escreve o catálogo como uma sequência de valores do formato de {@code writer}, sem separadores
+     * (por exemplo, uma sequência CBOR, RFC 8742, em que cada item já delimita o próprio tamanho).
+     *
+     * @return quantidade de livros exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportBooks(OutputStream out, ObjectWriter writer) throws IOException {
+        logger.debug("Iniciando exportação do catálogo");
+        ObjectWriter sequenceWriter = writer
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long count = 0;
+        try (Stream<Book> books = bookRepository.streamAllByOrderByIdAsc();
+             SequenceWriter sequence = sequenceWriter.writeValues(out)) {
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                sequence.write(iterator.next());
+                if (++count % EXPORT_CLEAR_INTERVAL == 0) {
+                    sequence.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        out.flush();
+        logger.info("Exportação concluída: {} livros", count);
+        return count;
+    }
+
+    /**
+     * Versão atual do livro (ETag e Last-Modified) obtida só das colunas de versão, sem carregar o livro.
+     * O ETag combina a versão do livro com as de cada autor, que também fazem parte da representação.
+     */
+    public Optional<ResourceVersion> getBookVersion(Long id) {
+        return bookRepository.findVersionById(id)
+                .map(v -> ResourceVersion.of("book", id, v.getVersion() == null ? 0 : v.getVersion(),
+                        v.getAuthorsVersions(), latest(v.getAtualizadoEm(), v.getAuthorsAtualizadoEm())));
+    }
+
+    /**
+     * Mesma versão de {@link #getBookVersion}, calculada a partir de um livro já carregado.
+     */
+    public static ResourceVersion versionOf(Book book) {
+        Instant lastModified = book.getAtualizadoEm();
+        for (Author author : book.getAuthors()) {
+            lastModified = latest(lastModified, author.getAtualizadoEm());
+        }
+        String authorsVersions = book.getAuthors().stream()
+                .sorted(Comparator.comparing(Author::getId))
+                .map(author -> author.getId() + ":" + (author.getVersion() == null ? 0 : author.getVersion()))
+                .collect(Collectors.joining(","));
+        long version = book.getVersion() == null ? 0 : book.getVersion();
+        return ResourceVersion.of("book", book.getId(), version, authorsVersions, lastModified);
     }
 
+    /**
+     * Atualiza o livro. Com {@code ifMatch} informado, só aplica a alteração se o ETag atual corresponder;
+     * caso contrário lança {@link PreconditionFailedException}. Alterações concorrentes são detectadas pela
+     * coluna de versão e também resultam em 412 (com If-Match) ou 409 (sem If-Match).
+     * A disponibilidade acompanha os exemplares (ver {@link LoanService}): um novo total é aplicado por UPDATE
+     * condicional e resulta em 409 se for menor que o número de exemplares emprestados; {@code disponivel = false}
+     * retira os exemplares da estante e {@code disponivel = true} resulta em 400 se o livro ficar indisponível.
+     */
     @Transactional
-    public Optional<Book> updateBook(Long id, BookDTO bookDTO) {
-        logger.info("Atualizando livro com ID: {}", id);
+    public Optional<Book> updateBook(Long id, BookDTO bookDTO, String ifMatch) {
+        logger.debug("Atualizando livro com ID: {}", id);
         return bookRepository.findById(id).map(book -> {
-            book.setTitulo(bookDTO.getTitulo());
-            book.setPaginas(bookDTO.getPaginas());
-            book.setDisponivel(bookDTO.isDisponivel());
-            book.setDataPublicacao(bookDTO.getDataPublicacao());
+            if (!versionOf(book).matches(ifMatch)) {
+                throw new PreconditionFailedException("O livro com ID " + id + " foi alterado por outra requisição.");
+            }
+            validateCopies(bookDTO);
+            BookFacetService.Counts before = bookFacetService.countsOf(book);
+            applyFields(book, bookDTO);
 
             if (bookDTO.getAuthorIds() != null && !bookDTO.getAuthorIds().isEmpty()) {
-                Set<Author> authors = new HashSet<>(authorRepository.findAllById(bookDTO.getAuthorIds()));
-                book.setAuthors(authors);
+                applyAuthors(book, bookDTO.getAuthorIds(), loadAuthors(bookDTO.getAuthorIds()));
+            }
 
-                            String authorNames = authors.stream()
-                                                        .map(Author::getName)
-                                                        .collect(Collectors.joining(", "));
-                            book.setAutor(authorNames);            }
-
-            Book updatedBook = bookRepository.save(book);
+            Book updatedBook;
+            try {
+                updatedBook = bookRepository.saveAndFlush(book);
+            } catch (OptimisticLockingFailureException e) {
+                String message = "O livro com ID " + id + " foi alterado por outra requisição.";
+                throw ifMatch != null ? new PreconditionFailedException(message) : new ConflictException(message);
+            }
+            if (bookDTO.getExemplares() != null && bookDTO.getExemplares() != updatedBook.getExemplares()) {
+                if (bookRepository.resizeCopies(id, bookDTO.getExemplares(), Instant.now()) == 0) {
+                    throw new ConflictException("O livro com ID " + id + " tem mais exemplares emprestados do que "
+                            + bookDTO.getExemplares() + ".");
+                }
+                updatedBook = bookRepository.findWithAuthorsById(id).orElseThrow();
+            }
+            if (Boolean.FALSE.equals(bookDTO.getDisponivel()) && updatedBook.getExemplaresDisponiveis() > 0) {
+                bookRepository.withdrawShelfCopies(List.of(id), Instant.now());
+                entityManager.refresh(updatedBook);
+            }
+            if (Boolean.TRUE.equals(bookDTO.getDisponivel()) && !updatedBook.isDisponivel()) {
+                throw new BadRequestException("O livro com ID " + id + " não tem exemplares na estante; "
+                        + "a disponibilidade acompanha o número de exemplares.");
+            }
+            changeFeedService.record(ChangeLogEntry.Tipo.LIVRO, id, ChangeLogEntry.Operacao.ATUALIZADO);
+            bookFacetService.record(before, bookFacetService.countsOf(updatedBook));
             logger.info("Livro com ID: {} atualizado com sucesso.", id);
             return updatedBook;
         });
     }
 
+    /**
+     * Associa ao livro um PDF já recebido por {@link PdfStorageService#stage}, liberando o PDF anterior,
+     * e agenda a extração de páginas, metadados e texto (ver {@link PdfIngestionService}).
+     * Se o livro não existir, o arquivo recebido é descartado.
+     */
+    @Transactional
+    public Optional<Book> attachPdf(Long id, PdfStorageService.StagedPdf staged) {
+        logger.debug("Associando PDF {} ao livro com ID: {}", staged.hash(), id);
+        Optional<Book> bookOptional = bookRepository.findById(id);
+        if (bookOptional.isEmpty()) {
+            pdfStorageService.discard(staged);
+            return Optional.empty();
+        }
+        Book book = bookOptional.get();
+        String previous = book.getPdfPath();
+        book.setPdfPath(pdfStorageService.acquire(staged));
+        pdfStorageService.release(previous);
+        pdfIngestionService.schedule(id, staged.hash());
+        changeFeedService.record(ChangeLogEntry.Tipo.LIVRO, id, ChangeLogEntry.Operacao.ATUALIZADO);
+        return Optional.of(book);
+    }
+
+    @Transactional
     public void deleteBook(Long id) {
-        logger.info("Deletando livro com ID: {}", id);
-        bookRepository.deleteById(id);
+        logger.debug("Deletando livro com ID: {}", id);
+        bookRepository.findById(id).ifPresent(book -> {
+            pdfStorageService.release(book.getPdfPath());
+            pdfIngestionService.cancel(id);
+            loanRepository.deleteByBookId(id);
+            bookFacetService.record(bookFacetService.countsOf(book), null);
+            bookRepository.delete(book);
+            changeFeedService.record(ChangeLogEntry.Tipo.LIVRO, id, ChangeLogEntry.Operacao.EXCLUIDO);
+        });
     }
 
     @Transactional
     public Book save(Book book) {
         return bookRepository.save(book);
     }
+
+    /**
+     * Carrega autores por ID consultando primeiro o contexto de persistência e o cache de segundo nível;
+     * apenas os que faltarem vão ao banco, numa única consulta. IDs inexistentes ficam de fora do mapa.
+     */
+    private Map<Long, Author> loadAuthors(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return Map.of();
+        }
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Author.class)
+                .with(CacheMode.NORMAL)
+                .multiLoad(distinctIds)
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * Copia os campos simples do DTO para o livro (criação, importação e atualização).
+     */
+    static void applyFields(Book book, BookDTO bookDTO) {
+        book.setTitulo(bookDTO.getTitulo());
+        book.setPaginas(bookDTO.getPaginas());
+        book.setDataPublicacao(bookDTO.getDataPublicacao());
+    }
+
+    /**
+     * Exemplares de um livro novo ({@code exemplares}, 1 se omitido), todos na estante. {@code disponivel = false}
+     * cadastra o livro sem exemplares: exemplares fora da estante sempre correspondem a empréstimos ativos.
+     */
+    static void applyCopies(Book book, BookDTO bookDTO) {
+        validateCopies(bookDTO);
+        int exemplares = Boolean.FALSE.equals(bookDTO.getDisponivel()) ? 0
+                : bookDTO.getExemplares() == null ? 1 : bookDTO.getExemplares();
+        book.setExemplares(exemplares);
+        book.setExemplaresDisponiveis(exemplares);
+        book.setDisponivel(exemplares > 0);
+    }
+
+    private static boolean withdrawsWithCopies(BookDTO bookDTO) {
+        return Boolean.FALSE.equals(bookDTO.getDisponivel()) && bookDTO.getExemplares() != null && bookDTO.getExemplares() > 0;
+    }
+
+    private static void validateCopies(BookDTO bookDTO) {
+        if (bookDTO.getExemplares() != null && bookDTO.getExemplares() < 0) {
+            throw new BadRequestException("O número de exemplares não pode ser negativo.");
+        }
+        if (withdrawsWithCopies(bookDTO)) {
+            throw new BadRequestException(WITHDRAWN_WITH_COPIES);
+        }
+    }
+
+    /**
+     * Associa ao livro os autores indicados, já carregados em {@code authorsById}, e atualiza o campo autor.
+     * Lança {@link ResourceNotFoundException} para IDs sem autor correspondente.
+     */
+    static void applyAuthors(Book book, Collection<Long> authorIds, Map<Long, Author> authorsById) {
+        Set<Author> authors = new HashSet<>();
+        for (Long authorId : authorIds) {
+            Author author = authorsById.get(authorId);
+            if (author == null) {
+                throw new ResourceNotFoundException("Autor não encontrado com o ID: " + authorId);
+            }
+            authors.add(author);
+        }
+        book.setAuthors(authors);
+        book.setAutor(joinAuthorNames(authors));
+    }
+
+    /**
+     * Nomes dos autores ordenados pelos bytes em UTF-8 (e por ID no empate), a mesma ordem usada por
+     * {@code BookRepository.refreshAuthorNames} ao propagar uma renomeação, qualquer que seja a collation do banco.
+     */
+    static String joinAuthorNames(Set<Author> authors) {
+        return authors.stream()
+                .sorted(Comparator.comparing((Author author) -> author.getName().getBytes(StandardCharsets.UTF_8), Arrays::compareUnsigned)
+                        .thenComparing(Author::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(Author::getName)
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Reordena {@code items} na ordem de {@code ids} (por exemplo, a ordem de relevância da busca).
+     */
+    public static <T> List<T> inIdOrder(List<Long> ids, List<T> items, Function<T, Long> idOf) {
+        Map<Long, T> byId = items.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Deslocamento da página na busca, limitado a {@link #MAX_SEARCH_RESULTS}: calculado em long, para que
+     * páginas enormes não deem a volta no int e virem um OFFSET negativo.
+     */
+    public static int searchOffset(int page, int limit) {
+        return (int) Math.min((long) Math.max(page, 0) * limit, MAX_SEARCH_RESULTS);
+    }
 }
 
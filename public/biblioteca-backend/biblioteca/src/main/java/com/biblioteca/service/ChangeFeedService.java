@@ -0,0 +1,180 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.AuthorSummary;
+import com.biblioteca.dto.BookSummary;
+import com.biblioteca.dto.ChangeDTO;
+import com.biblioteca.dto.ChangeFeedDTO;
+import com.biblioteca.model.ChangeLogEntry;
+import com.biblioteca.model.ChangeLogSequencer;
+import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.repository.BookRepository;
+import com.biblioteca.repository.ChangeLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Feed de alterações de livros e autores (GET /changes), para sincronização incremental dos clientes.
+ * <p>
+ * As alterações são gravadas em {@code change_log} na transação de quem as faz, sem posição. Periodicamente
+ * ({@code biblioteca.changes.sequence-interval}), o sequenciador atribui posições crescentes às linhas já
+ * confirmadas, uma rodada por vez (a linha de {@code change_log_sequencer} fica bloqueada durante a rodada).
+ * Um ID de sequência não serve de cursor porque é obtido antes do commit: um cliente poderia ler o ID 11 e pular
+ * para sempre o 10, confirmado depois. Com a posição atribuída após o commit, tudo o que aparece com posição
+ * maior que o cursor do cliente é realmente novo para ele. A leitura do feed só lê: uma alteração aparece nela
+ * depois da rodada seguinte ao commit, vinda de qualquer instância.
+ */
+@Service
+public class ChangeFeedService {
+
+    // Linhas sequenciadas por transação do sequenciador.
+    private static final int SEQUENCE_BATCH = 1000;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Transações com alterações de livros ou autores confirmadas nesta instância (ver generation()).
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Registra a alteração na transação corrente.
+     */
+    public void record(ChangeLogEntry.Tipo tipo, Long id, ChangeLogEntry.Operacao operacao) {
+        changeLogRepository.save(new ChangeLogEntry(tipo, id, operacao));
+        afterCommit();
+    }
+
+    /**
+     * Registra a mesma alteração para vários registros (importação em massa, atualização em lote).
+     */
+    public void recordAll(ChangeLogEntry.Tipo tipo, Collection<Long> ids, ChangeLogEntry.Operacao operacao) {
+        changeLogRepository.saveAll(ids.stream().map(id -> new ChangeLogEntry(tipo, id, operacao)).toList());
+        afterCommit();
+    }
+
+    /**
+     * Muda a cada transação confirmada que alterou livros ou autores nesta instância. Leituras guardadas
+     * em memória ({@link SingleFlight}) deixam de valer quando a geração muda.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Alterações com posição maior que {@code since}, com o estado atual de cada registro.
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedDTO getChanges(long since, int limit) {
+        int pageSize = BookService.clampLimit(limit);
+        List<ChangeLogEntry> entries = changeLogRepository.findSequencedAfter(since, Limit.of(pageSize));
+        Map<Long, BookSummary> books = summaries(entries, ChangeLogEntry.Tipo.LIVRO,
+                ids -> bookRepository.findSummariesByIdIn(ids), BookSummary::id);
+        Map<Long, AuthorSummary> authors = summaries(entries, ChangeLogEntry.Tipo.AUTOR,
+                ids -> authorRepository.findSummariesByIdIn(ids), AuthorSummary::id);
+
+        List<ChangeDTO> changes = entries.stream()
+                .map(entry -> new ChangeDTO(entry.getPosicao(), entry.getTipo(), entry.getEntidadeId(),
+                        entry.getOperacao(), entry.getRegistradoEm(),
+                        entry.getOperacao() == ChangeLogEntry.Operacao.EXCLUIDO ? null
+                                : (entry.getTipo() == ChangeLogEntry.Tipo.LIVRO ? books : authors).get(entry.getEntidadeId())))
+                .toList();
+        long cursor = changes.isEmpty() ? since : changes.get(changes.size() - 1).cursor();
+        return new ChangeFeedDTO(changes, cursor, entries.size() == pageSize);
+    }
+
+    /**
+     * Cria a linha do sequenciador na inicialização, para que as rodadas só precisem bloqueá-la.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSequencer() {
+        transactionTemplate.executeWithoutResult(status -> changeLogRepository.insertSequencerIfAbsent(ChangeLogSequencer.ID));
+    }
+
+    /**
+     * Atribui posições a todas as alterações confirmadas ainda sem posição.
+     */
+    @Scheduled(fixedDelayString = "${biblioteca.changes.sequence-interval:PT1S}",
+            initialDelayString = "${biblioteca.changes.sequence-interval:PT1S}")
+    public void sequence() {
+        if (!changeLogRepository.existsByPosicaoIsNull()) {
+            return;
+        }
+        Integer sequenced;
+        do {
+            sequenced = transactionTemplate.execute(status -> sequenceBatch());
+        } while (sequenced != null && sequenced == SEQUENCE_BATCH);
+    }
+
+    private int sequenceBatch() {
+        ChangeLogSequencer sequencer = changeLogRepository.findSequencerForUpdate(ChangeLogSequencer.ID)
+                .orElseGet(() -> {
+                    // Tabela recriada depois da inicialização.
+                    changeLogRepository.insertSequencerIfAbsent(ChangeLogSequencer.ID);
+                    return changeLogRepository.findSequencerForUpdate(ChangeLogSequencer.ID).orElseThrow();
+                });
+        List<ChangeLogEntry> entries = changeLogRepository.findUnsequenced(Limit.of(SEQUENCE_BATCH));
+        long posicao = sequencer.getUltimaPosicao();
+        for (ChangeLogEntry entry : entries) {
+            entry.setPosicao(++posicao);
+        }
+        sequencer.setUltimaPosicao(posicao);
+        return entries.size();
+    }
+
+    private void afterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            generation.incrementAndGet();
+            return;
+        }
+        // Uma sincronização por transação, mesmo que ela registre milhares de alterações.
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeedService.this);
+                if (status == STATUS_COMMITTED) {
+                    generation.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    private static <T> Map<Long, T> summaries(List<ChangeLogEntry> entries, ChangeLogEntry.Tipo tipo,
+                                              Function<List<Long>, List<T>> load, Function<T, Long> idOf) {
+        List<Long> ids = entries.stream()
+                .filter(entry -> entry.getTipo() == tipo && entry.getOperacao() != ChangeLogEntry.Operacao.EXCLUIDO)
+                .map(ChangeLogEntry::getEntidadeId)
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return load.apply(ids).stream().collect(Collectors.toMap(idOf, Function.identity()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.biblioteca.service;
+
+import com.biblioteca.exception.ConflictException;
+import com.biblioteca.exception.ResourceNotFoundException;
+import com.biblioteca.model.Loan;
+import com.biblioteca.model.ChangeLogEntry;
+import com.biblioteca.repository.BookRepository;
+import com.biblioteca.repository.LoanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Empréstimos e devoluções de exemplares.
+ * <p>
+ * A disponibilidade nunca é lida, alterada e gravada de volta: cada operação é um UPDATE condicional que
+ * verifica e altera o contador na mesma instrução (ver {@code BookRepository.checkoutCopy}). Empréstimos
+ * simultâneos do mesmo título não emprestam mais exemplares do que existem e cada transação segura a linha
+ * do livro só pelo tempo de um UPDATE e um INSERT (mais a leitura por chave do contador, que ainda sob o
+ * bloqueio do UPDATE diz se o livro mudou de disponibilidade; ver {@link BookFacetService}).
+ */
+@Service
+public class LoanService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanService.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private BookFacetService bookFacetService;
+
+    /**
+     * Empresta um exemplar do livro. Lança {@link ResourceNotFoundException} se o livro não existir e
+     * {@link ConflictException} se todos os exemplares estiverem emprestados.
+     */
+    @Transactional
+    public Loan checkout(Long bookId, String leitor) {
+        logger.debug("Emprestando exemplar do livro com ID: {}", bookId);
+        Instant now = Instant.now();
+        if (bookRepository.checkoutCopy(bookId, now) == 0) {
+            if (!bookRepository.existsById(bookId)) {
+                throw new ResourceNotFoundException("Livro não encontrado com o ID: " + bookId);
+            }
+            throw new ConflictException("Nenhum exemplar disponível do livro com ID " + bookId + ".");
+        }
+        changeFeedService.record(ChangeLogEntry.Tipo.LIVRO, bookId, ChangeLogEntry.Operacao.ATUALIZADO);
+        if (bookRepository.findExemplaresDisponiveisById(bookId) == 0) {
+            bookFacetService.availabilityChanged(false);
+        }
+        return loanRepository.save(new Loan(bookRepository.getReferenceById(bookId), leitor, now));
+    }
+
+    /**
+     * Registra a devolução do empréstimo e repõe o exemplar. Lança {@link ResourceNotFoundException} se o
+     * empréstimo não existir (ou for de outro livro) e {@link ConflictException} se já tiver sido devolvido.
+     */
+    @Transactional
+    public Loan returnLoan(Long bookId, Long loanId) {
+        logger.debug("Devolvendo empréstimo com ID: {} do livro com ID: {}", loanId, bookId);
+        Instant now = Instant.now();
+        if (loanRepository.markReturned(loanId, bookId, now) == 0) {
+            loanRepository.findById(loanId)
+                    .filter(loan -> bookId.equals(loan.getBookId()))
+                    .orElseThrow(() -> new ResourceNotFoundException("Empréstimo não encontrado com o ID: " + loanId));
+            throw new ConflictException("O empréstimo com ID " + loanId + " já foi devolvido.");
+        }
+        if (bookRepository.returnCopy(bookId, now) == 0) {
+            // Estoque já completo (por exemplo, ajustado direto no banco): o contador não passa do total.
+            logger.warn("Livro com ID {} já tem todos os exemplares disponíveis; devolução não alterou o estoque", bookId);
+        } else {
+            changeFeedService.record(ChangeLogEntry.Tipo.LIVRO, bookId, ChangeLogEntry.Operacao.ATUALIZADO);
+            if (bookRepository.findExemplaresDisponiveisById(bookId) == 1) {
+                bookFacetService.availabilityChanged(true);
+            }
+        }
+        return loanRepository.findById(loanId).orElseThrow();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Loan> getActiveLoans(Long bookId) {
+        return loanRepository.findActiveByBookId(bookId);
+    }
+}
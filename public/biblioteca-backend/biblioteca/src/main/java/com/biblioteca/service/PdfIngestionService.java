@@ -0,0 +1,291 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.PdfIngestionStatusDTO;
+import com.biblioteca.model.ChangeLogEntry;
+import com.biblioteca.model.PdfIngestion;
+import com.biblioteca.repository.BookRepository;
+import com.biblioteca.repository.PdfIngestionRepository;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Processamento dos PDFs em segundo plano: número de páginas, metadados e texto simples.
+ * <p>
+ * O upload só grava um trabalho PENDENTE em {@code pdf_ingestions} e retorna. Após o commit, o trabalho é
+ * entregue a um pool de workers com fila limitada. Quando a fila está cheia, o trabalho não é descartado:
+ * continua PENDENTE no banco e o varredor periódico o reenvia conforme houver espaço, então a extração
+ * anda no ritmo dos workers sem segurar as requisições de upload.
+ */
+@Service
+public class PdfIngestionService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfIngestionService.class);
+
+    // Tamanho máximo dos metadados gravados (colunas de 1000 caracteres).
+    private static final int MAX_METADATA_LENGTH = 1000;
+
+    @Autowired
+    private PdfIngestionRepository pdfIngestionRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PdfStorageService pdfStorageService;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${biblioteca.pdf.max-text-chars:1000000}")
+    private int maxTextChars;
+
+    @Value("${biblioteca.pdf.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${biblioteca.pdf.stale-after:PT10M}")
+    private Duration staleAfter;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    // Livros já entregues ao pool e ainda não concluídos, para o varredor não enfileirá-los de novo.
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public PdfIngestionService(@Value("${biblioteca.pdf.workers:2}") int workers,
+                               @Value("${biblioteca.pdf.queue-capacity:100}") int queueCapacity,
+                               Environment environment) {
+        executor = new ThreadPoolTaskExecutor();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // Mesmo número de workers e mesma fila limitada, mas cada worker é uma thread virtual.
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("pdf-ingestion-").getVirtualThreadFactory());
+        }
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pdf-ingestion-");
+        executor.initialize();
+    }
+
+    /**
+     * Registra o processamento do PDF recém-associado ao livro. Deve ser chamado na transação do upload;
+     * o trabalho só vai para o pool depois do commit.
+     */
+    public void schedule(Long bookId, String hash) {
+        PdfIngestion ingestion = pdfIngestionRepository.findById(bookId)
+                .orElseGet(() -> new PdfIngestion(bookId, hash));
+        ingestion.reset(hash);
+        pdfIngestionRepository.save(ingestion);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(bookId);
+            }
+        });
+    }
+
+    /**
+     * Remove o processamento do livro (livro excluído). Um worker em andamento descarta o resultado.
+     */
+    public void cancel(Long bookId) {
+        pdfIngestionRepository.deleteById(bookId);
+    }
+
+    /**
+     * Remove de uma vez os processamentos dos livros informados (exclusão em massa).
+     */
+    public void cancelAll(Collection<Long> bookIds) {
+        pdfIngestionRepository.deleteByBookIdIn(bookIds);
+    }
+
+    public Optional<PdfIngestionStatusDTO> getStatus(Long bookId) {
+        return pdfIngestionRepository.findStatusByBookId(bookId);
+    }
+
+    /**
+     * Reenvia ao pool os trabalhos pendentes, até o limite de espaço livre na fila,
+     * e devolve à fila os que ficaram travados em PROCESSANDO.
+     */
+    @Scheduled(fixedDelayString = "${biblioteca.pdf.sweep-interval:PT30S}")
+    public void sweep() {
+        Instant now = Instant.now();
+        Instant staleBefore = now.minus(staleAfter);
+        transactionTemplate.executeWithoutResult(status -> {
+            int failed = pdfIngestionRepository.failStale(PdfIngestion.Status.PROCESSANDO, PdfIngestion.Status.ERRO,
+                    "Processamento interrompido " + maxAttempts + " vezes.", staleBefore, maxAttempts, now);
+            int requeued = pdfIngestionRepository.requeueStale(PdfIngestion.Status.PROCESSANDO,
+                    PdfIngestion.Status.PENDENTE, staleBefore, maxAttempts, now);
+            if (failed + requeued > 0) {
+                logger.warn("Processamentos de PDF travados: {} devolvidos à fila, {} marcados com erro", requeued, failed);
+            }
+        });
+
+        int capacity = executor.getThreadPoolExecutor().getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<Long> pending = pdfIngestionRepository.findBookIdsByStatus(PdfIngestion.Status.PENDENTE, now, Limit.of(capacity));
+        for (Long bookId : pending) {
+            if (!submit(bookId)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Entrega o trabalho ao pool. Retorna {@code false} se a fila estiver cheia; o trabalho permanece
+     * PENDENTE para o próximo ciclo do varredor.
+     */
+    private boolean submit(Long bookId) {
+        if (!queued.add(bookId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(bookId);
+                } finally {
+                    queued.remove(bookId);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            queued.remove(bookId);
+            logger.info("Fila de processamento de PDFs cheia; livro ID {} aguarda o próximo ciclo", bookId);
+            return false;
+        }
+    }
+
+    private void process(Long bookId) {
+        String hash = transactionTemplate.execute(status ->
+                pdfIngestionRepository.claim(bookId, PdfIngestion.Status.PENDENTE, PdfIngestion.Status.PROCESSANDO, Instant.now()) == 1
+                        ? pdfIngestionRepository.findById(bookId).map(PdfIngestion::getHash).orElse(null)
+                        : null);
+        if (hash == null) {
+            return;
+        }
+        logger.info("Processando PDF {} do livro ID {}", hash, bookId);
+        try {
+            // Mesmo conteúdo já processado para outro livro: reaproveita o resultado.
+            PdfIngestion result = pdfIngestionRepository
+                    .findFirstByHashAndStatusAndBookIdNot(hash, PdfIngestion.Status.CONCLUIDO, bookId)
+                    .orElse(null);
+            if (result == null) {
+                result = extract(pdfStorageService.pathOf(hash));
+            }
+            complete(bookId, hash, result);
+        } catch (Exception e) {
+            logger.error("Falha ao processar o PDF {} do livro ID {}: {}", hash, bookId, e.getMessage());
+            fail(bookId, hash, e);
+        }
+    }
+
+    private void complete(Long bookId, String hash, PdfIngestion result) {
+        transactionTemplate.executeWithoutResult(status -> pdfIngestionRepository.findForUpdateByBookId(bookId)
+                .filter(current -> current.getStatus() == PdfIngestion.Status.PROCESSANDO && hash.equals(current.getHash()))
+                .ifPresentOrElse(current -> {
+                    current.copyResultFrom(result);
+                    current.setStatus(PdfIngestion.Status.CONCLUIDO);
+                    current.setMensagemErro(null);
+                    if (result.getPaginas() != null && result.getPaginas() > 0) {
+                        bookRepository.findById(bookId).ifPresent(book -> {
+                            book.setPaginas(result.getPaginas());
+                            changeFeedService.record(ChangeLogEntry.Tipo.LIVRO, bookId, ChangeLogEntry.Operacao.ATUALIZADO);
+                        });
+                    }
+                    logger.info("PDF do livro ID {} processado: {} páginas", bookId, result.getPaginas());
+                }, () -> logger.info("PDF do livro ID {} foi substituído durante o processamento; resultado descartado", bookId)));
+    }
+
+    private void fail(Long bookId, String hash, Exception e) {
+        transactionTemplate.executeWithoutResult(status -> pdfIngestionRepository.findForUpdateByBookId(bookId)
+                .filter(current -> current.getStatus() == PdfIngestion.Status.PROCESSANDO && hash.equals(current.getHash()))
+                .ifPresent(current -> {
+                    current.setStatus(PdfIngestion.Status.ERRO);
+                    current.setMensagemErro(truncate(e.getClass().getSimpleName() + ": " + e.getMessage(), MAX_METADATA_LENGTH));
+                }));
+    }
+
+    /**
+     * Lê o PDF do disco (com cache de objetos em arquivo temporário, não em memória) e extrai páginas,
+     * metadados e texto. O texto é extraído página a página e para ao atingir o limite configurado.
+     */
+    private PdfIngestion extract(Path file) throws IOException {
+        PdfIngestion result = new PdfIngestion();
+        try (PDDocument document = Loader.loadPDF(file.toFile(), null, null, null, IOUtils.createTempFileOnlyStreamCache())) {
+            int pages = document.getNumberOfPages();
+            result.setPaginas(pages);
+
+            PDDocumentInformation info = document.getDocumentInformation();
+            result.setTituloPdf(clean(info.getTitle(), MAX_METADATA_LENGTH));
+            result.setAutorPdf(clean(info.getAuthor(), MAX_METADATA_LENGTH));
+            result.setAssunto(clean(info.getSubject(), MAX_METADATA_LENGTH));
+            result.setPalavrasChave(clean(info.getKeywords(), MAX_METADATA_LENGTH));
+            result.setProdutor(clean(info.getProducer(), MAX_METADATA_LENGTH));
+            if (info.getCreationDate() != null) {
+                result.setDataCriacaoPdf(info.getCreationDate().toInstant());
+            }
+
+            PDFTextStripper stripper = new PDFTextStripper();
+            StringBuilder text = new StringBuilder();
+            for (int page = 1; page <= pages && text.length() < maxTextChars; page++) {
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                text.append(stripper.getText(document));
+            }
+            result.setTexto(clean(text.toString(), maxTextChars));
+        }
+        return result;
+    }
+
+    /**
+     * Remove caracteres nulos (não aceitos em colunas de texto do PostgreSQL) e limita o tamanho.
+     */
+    private static String clean(String value, int maxLength) {
+        if (value == null) {
+            return null;
+        }
+        String cleaned = value.replace("\u0000", "").strip();
+        return cleaned.isEmpty() ? null : truncate(cleaned, maxLength);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    @Override
+    public void destroy() {
+        // Trabalhos na fila ou em andamento ficam PENDENTE/PROCESSANDO e são retomados pelo varredor.
+        executor.shutdown();
+    }
+}
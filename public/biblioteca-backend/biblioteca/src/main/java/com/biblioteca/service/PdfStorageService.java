@@ -0,0 +1,325 @@
+package com.biblioteca.service;
+
+import com.biblioteca.repository.PdfFileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Armazenamento de PDFs endereçado por conteúdo.
+ * <p>
+ * O upload é gravado num arquivo temporário enquanto o SHA-256 é calculado, sem carregar o PDF em memória.
+ * O arquivo final fica em {@code uploads/sha256/ab/cd/<hash>.pdf}: os dois níveis de diretório pelos primeiros
+ * bytes do hash evitam pastas com milhões de entradas. PDFs idênticos são gravados uma única vez e a tabela
+ * {@code pdf_files} conta quantos livros apontam para cada um.
+ * <p>
+ * Arquivos enviados antes deste esquema ({@code uploads/<nome original>}) continuam sendo servidos.
+ */
+@Service
+public class PdfStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfStorageService.class);
+
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("[0-9a-f]{64}\\.pdf");
+
+    // Travas por faixa de hash: serializam, dentro desta instância, a promoção e a remoção do mesmo arquivo.
+    private static final int LOCK_STRIPES = 64;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    @Autowired
+    private PdfFileRepository pdfFileRepository;
+
+    // Pasta de uploads como configurada (relativa), usada nos caminhos gravados em Book.pdfPath.
+    private final Path configuredRoot;
+
+    private final Path root;
+
+    private final Path tmp;
+
+    private final long maxSize;
+
+    private final Counter bytesReceived;
+
+    /**
+     * PDF recebido e já com hash calculado, ainda no diretório temporário.
+     * Só passa a ocupar o caminho definitivo quando a transação que o referencia vai ser confirmada.
+     */
+    public record StagedPdf(Path tempFile, String hash, long size) {
+    }
+
+    public PdfStorageService(@Value("${biblioteca.storage.root:uploads}") String root,
+                             @Value("${biblioteca.storage.max-pdf-size:512MB}") DataSize maxSize,
+                             MeterRegistry meterRegistry) {
+        this.configuredRoot = Paths.get(root);
+        this.root = configuredRoot.toAbsolutePath().normalize();
+        this.tmp = this.root.resolve("tmp");
+        this.maxSize = maxSize.toBytes();
+        this.bytesReceived = Counter.builder("biblioteca.pdf.bytes")
+                .description("Bytes de PDF recebidos em uploads e enviados em downloads")
+                .baseUnit("bytes")
+                .tag("direction", "upload")
+                .register(meterRegistry);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        try {
+            Files.createDirectories(this.tmp);
+        } catch (IOException e) {
+            throw new RuntimeException("Não foi possível inicializar a pasta para upload!");
+        }
+    }
+
+    /**
+     * Copia o conteúdo para um arquivo temporário calculando o SHA-256 no caminho.
+     * Se o conteúdo passar do tamanho máximo, o temporário é apagado e a cópia interrompida.
+     */
+    public StagedPdf stage(InputStream in) throws IOException {
+        Path temp = Files.createTempFile(tmp, "upload-", ".pdf");
+        MessageDigest digest = sha256();
+        long size = 0;
+        try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                size += read;
+                if (size > maxSize) {
+                    throw new MaxUploadSizeExceededException(maxSize);
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            bytesReceived.increment(size);
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        logger.info("PDF recebido: {} bytes, sha256 {}", size, hash);
+        return new StagedPdf(temp, hash, size);
+    }
+
+    /**
+     * Descarta um PDF recebido que não chegou a ser associado a nenhum livro.
+     */
+    public void discard(StagedPdf staged) {
+        try {
+            Files.deleteIfExists(staged.tempFile());
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover o arquivo temporário {}: {}", staged.tempFile(), e.getMessage());
+        }
+    }
+
+    /**
+     * Registra mais uma referência ao PDF e devolve o caminho a gravar em {@code Book.pdfPath}.
+     * Deve ser chamado dentro da transação que altera o livro: o arquivo é movido para o caminho definitivo
+     * logo antes do commit, e uma falha nessa etapa desfaz a transação, então nenhuma linha confirmada aponta
+     * para um arquivo ausente. Em caso de rollback, o temporário é descartado e o arquivo movido, removido se
+     * nenhum livro o referenciar.
+     */
+    public String acquire(StagedPdf staged) {
+        // Inserir antes de incrementar: com incremento e depois INSERT, dois primeiros uploads do mesmo
+        // conteúdo inseririam a mesma chave e um deles falharia.
+        pdfFileRepository.insertIfAbsent(staged.hash(), staged.size());
+        pdfFileRepository.incrementReferences(staged.hash());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean promoted;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                promoted = promote(staged);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                discard(staged);
+                if (promoted && status == STATUS_ROLLED_BACK) {
+                    deleteIfOrphan(staged.hash());
+                }
+            }
+        });
+        return configuredRoot.resolve(relativePath(staged.hash())).toString();
+    }
+
+    /**
+     * Remove uma referência ao PDF indicado por {@code pdfPath}. Quando nenhum livro o usa mais, a linha em
+     * {@code pdf_files} é apagada e o arquivo removido após o commit. Caminhos antigos (fora do esquema por
+     * conteúdo) são ignorados.
+     */
+    public void release(String pdfPath) {
+        hashOf(pdfPath).ifPresent(hash -> {
+            pdfFileRepository.decrementReferences(hash);
+            if (pdfFileRepository.deleteIfUnreferenced(hash) > 0) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        deleteIfOrphan(hash);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Versão em massa de {@link #release}: remove as referências de todos os caminhos informados com poucos
+     * UPDATEs (um por quantidade de referências, normalmente só um) e apaga de uma vez os PDFs que ficaram sem
+     * livro; os arquivos são removidos após o commit. Retorna quantos PDFs deixaram de ser usados.
+     */
+    public int releaseAll(Collection<String> pdfPaths) {
+        Map<String, Long> references = pdfPaths.stream()
+                .map(PdfStorageService::hashOf)
+                .flatMap(Optional::stream)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        if (references.isEmpty()) {
+            return 0;
+        }
+        references.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue, Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                .forEach((count, hashes) -> pdfFileRepository.decrementReferences(hashes, count.intValue()));
+        List<String> unreferenced = pdfFileRepository.findUnreferenced(references.keySet());
+        if (unreferenced.isEmpty()) {
+            return 0;
+        }
+        int removed = pdfFileRepository.deleteUnreferenced(unreferenced);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                unreferenced.forEach(hash -> deleteIfOrphan(hash));
+            }
+        });
+        return removed;
+    }
+
+    /**
+     * Resolve o nome pedido em GET /books/files/{filename}: nomes {@code <sha256>.pdf} vão para o diretório
+     * particionado; os demais, para a pasta antiga. Nomes que escapariam da pasta de uploads são recusados.
+     */
+    public Optional<Path> resolve(String filename) {
+        Path file = CONTENT_ADDRESSED_NAME.matcher(filename).matches()
+                ? root.resolve(relativePath(filename.substring(0, 64)))
+                : root.resolve(filename).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file) || !Files.isReadable(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * Pasta de uploads (absoluta), onde também ficam os arquivos anteriores ao armazenamento por conteúdo.
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Caminho definitivo do PDF com o hash informado.
+     */
+    public Path pathOf(String hash) {
+        return root.resolve(relativePath(hash));
+    }
+
+    /**
+     * Move o PDF recebido para o caminho definitivo. Retorna {@code false} se o conteúdo já estava armazenado
+     * e a cópia recebida foi descartada.
+     */
+    private boolean promote(StagedPdf staged) {
+        Path target = root.resolve(relativePath(staged.hash()));
+        synchronized (lockFor(staged.hash())) {
+            try {
+                if (Files.exists(target)) {
+                    // Conteúdo idêntico já armazenado: a cópia recebida é descartada.
+                    Files.deleteIfExists(staged.tempFile());
+                    return false;
+                }
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(staged.tempFile(), target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(staged.tempFile(), target);
+                }
+                return true;
+            } catch (FileAlreadyExistsException e) {
+                if (!Files.isRegularFile(target)) {
+                    throw new UncheckedIOException("Falha ao armazenar o PDF " + staged.hash(), e);
+                }
+                // Gravado ao mesmo tempo por outra instância.
+                discard(staged);
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao armazenar o PDF " + staged.hash(), e);
+            }
+        }
+    }
+
+    private void deleteIfOrphan(String hash) {
+        synchronized (lockFor(hash)) {
+            // Outro upload pode ter voltado a referenciar o mesmo conteúdo depois do nosso commit.
+            if (pdfFileRepository.existsById(hash)) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(root.resolve(relativePath(hash)));
+                logger.info("PDF {} removido: nenhum livro o referencia", hash);
+            } catch (IOException e) {
+                logger.warn("Não foi possível remover o PDF {}: {}", hash, e.getMessage());
+            }
+        }
+    }
+
+    private Object lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Optional<String> hashOf(String pdfPath) {
+        if (pdfPath == null) {
+            return Optional.empty();
+        }
+        String name = Paths.get(pdfPath).getFileName().toString();
+        return CONTENT_ADDRESSED_NAME.matcher(name).matches() ? Optional.of(name.substring(0, 64)) : Optional.empty();
+    }
+
+    private static Path relativePath(String hash) {
+        return Paths.get("sha256", hash.substring(0, 2), hash.substring(2, 4), hash + ".pdf");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
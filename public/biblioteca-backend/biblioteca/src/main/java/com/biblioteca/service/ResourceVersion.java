@@ -0,0 +1,56 @@
+package com.biblioteca.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Validadores HTTP de um recurso: ETag forte e momento da última alteração.
+ * O ETag é derivado das colunas @Version, então pode ser calculado sem carregar nem serializar a entidade.
+ */
+public record ResourceVersion(String eTag, Instant lastModified) {
+
+    public static ResourceVersion of(String kind, Long id, long version, Instant lastModified) {
+        return new ResourceVersion("\"" + kind + "-" + id + "-" + version + "\"", lastModified);
+    }
+
+    /**
+     * Versão de um recurso cuja representação inclui outros registros versionados (como os autores de um livro).
+     * {@code parts} lista os pares {@code id:versão} desses registros ordenados pelo ID; o ETag leva um resumo
+     * SHA-256 da lista. Somar as versões não serve: alterar um autor ou outro daria o mesmo ETag.
+     */
+    public static ResourceVersion of(String kind, Long id, long version, String parts, Instant lastModified) {
+        String digest = HexFormat.of().formatHex(sha256(parts == null ? "" : parts), 0, 8);
+        return new ResourceVersion("\"" + kind + "-" + id + "-" + version + "-" + digest + "\"", lastModified);
+    }
+
+    /**
+     * Last-Modified em milissegundos, ou -1 quando desconhecido (registros anteriores à coluna).
+     */
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+
+    /**
+     * Avalia um cabeçalho If-Match (comparação forte): "*" ou uma lista de ETags separadas por vírgula.
+     */
+    public boolean matches(String ifMatch) {
+        if (ifMatch == null) {
+            return true;
+        }
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(eTag));
+    }
+
+    private static byte[] sha256(String text) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
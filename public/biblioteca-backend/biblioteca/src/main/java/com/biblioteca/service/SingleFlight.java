@@ -0,0 +1,144 @@
+package com.biblioteca.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Junta leituras simultâneas da mesma chave numa única carga: a primeira requisição consulta o banco e as que
+ * chegam enquanto isso esperam e recebem o mesmo resultado. O resultado ainda vale por {@code window} depois da
+ * carga (micro-cache), o que cobre as rajadas de leituras de um mesmo registro em destaque.
+ * <p>
+ * Cada carga guarda a geração vigente quando começou ({@code generation}); quando a geração muda, resultados
+ * anteriores deixam de ser reaproveitados, mesmo dentro da janela. Falhas não ficam guardadas: quem esperava
+ * recebe a mesma exceção e a próxima leitura tenta de novo.
+ * <p>
+ * Os valores são compartilhados entre requisições e não devem ser alterados por quem os recebe.
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private final long windowNanos;
+
+    private final LongSupplier generation;
+
+    private final AtomicLong nextPurge = new AtomicLong(System.nanoTime());
+
+    private final Counter loaded;
+
+    private final Counter coalesced;
+
+    private final Counter cached;
+
+    /**
+     * @param name       nome da leitura, usado na tag {@code entity} das métricas
+     * @param window     por quanto tempo um resultado é reaproveitado após a carga; zero junta só leituras simultâneas
+     * @param generation geração atual dos dados; muda a cada alteração confirmada
+     */
+    public SingleFlight(String name, Duration window, LongSupplier generation, MeterRegistry meterRegistry) {
+        this.windowNanos = window.toNanos();
+        this.generation = generation;
+        this.loaded = counter(meterRegistry, name, "loaded");
+        this.coalesced = counter(meterRegistry, name, "coalesced");
+        this.cached = counter(meterRegistry, name, "cached");
+    }
+
+    /**
+     * Resultado de {@code loader} para a chave, compartilhado com as demais leituras da mesma chave
+     * em andamento ou recentes.
+     */
+    public V get(K key, Supplier<V> loader) {
+        long now = System.nanoTime();
+        long current = generation.getAsLong();
+        Flight<V> flight = flights.get(key);
+        if (flight != null && flight.usable(current, now)) {
+            return join(flight);
+        }
+        Flight<V> mine = new Flight<>(current);
+        flight = flights.compute(key, (k, existing) -> existing != null && existing.usable(current, now) ? existing : mine);
+        if (flight != mine) {
+            return join(flight);
+        }
+
+        loaded.increment();
+        try {
+            V value = loader.get();
+            mine.expiresAt = System.nanoTime() + windowNanos;
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            purgeIfDue(now);
+        }
+    }
+
+    private V join(Flight<V> flight) {
+        (flight.isDone() ? cached : coalesced).increment();
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Remove resultados vencidos, no máximo uma vez por janela, para o mapa não crescer com chaves lidas uma só vez.
+     */
+    private void purgeIfDue(long now) {
+        long due = nextPurge.get();
+        if (now - due < 0 || !nextPurge.compareAndSet(due, now + Math.max(windowNanos, Duration.ofSeconds(1).toNanos()))) {
+            return;
+        }
+        long current = generation.getAsLong();
+        long later = System.nanoTime();
+        flights.values().removeIf(flight -> flight.isDone() && !flight.usable(current, later));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder("biblioteca.reads")
+                .description("Leituras por ID: carregadas do banco, juntadas a uma carga em andamento ou servidas do micro-cache")
+                .tag("entity", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Flight<V> extends CompletableFuture<V> {
+
+        private final long generation;
+
+        // Preenchido antes de complete(); só é lido depois que a carga terminou.
+        private volatile long expiresAt;
+
+        private Flight(long generation) {
+            this.generation = generation;
+        }
+
+        private boolean usable(long currentGeneration, long now) {
+            if (generation != currentGeneration) {
+                return false;
+            }
+            if (!isDone()) {
+                return true;
+            }
+            return !isCompletedExceptionally() && now - expiresAt < 0;
+        }
+    }
+}
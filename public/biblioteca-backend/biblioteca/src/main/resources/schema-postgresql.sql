@@ -0,0 +1,47 @@
+-- Executado a cada inicialização, depois do DDL do Hibernate (spring.jpa.defer-datasource-initialization).
+-- Todas as instruções precisam ser idempotentes.
+
+-- Os IDs passaram de IDENTITY para sequências com alocação em blocos de 50.
+-- Garante que as sequências fiquem à frente dos IDs já existentes nas tabelas.
+SELECT setval('books_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM books) + 50, (SELECT last_value FROM books_seq)));
+SELECT setval('authors_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM authors) + 50, (SELECT last_value FROM authors_seq)));
+
+-- Busca textual (GET /books/search e GET /authors/search).
+-- Vetores tsvector mantidos pelo próprio banco como colunas geradas, indexados com GIN.
+-- Título e nomes de autores recebem peso maior (A) que os demais campos (B) no ranking.
+ALTER TABLE books ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese', coalesce(titulo, '')), 'A') ||
+        setweight(to_tsvector('portuguese', coalesce(autor, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_books_search_vector ON books USING GIN (search_vector);
+
+ALTER TABLE authors ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('portuguese', coalesce(biografia, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_authors_search_vector ON authors USING GIN (search_vector);
+
+-- Texto e metadados extraídos dos PDFs (pdf_ingestions), também usados por GET /books/search.
+-- Peso menor que título e autores, para que correspondências no conteúdo fiquem abaixo delas no ranking.
+ALTER TABLE pdf_ingestions ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese',
+            coalesce(titulo_pdf, '') || ' ' || coalesce(assunto, '') || ' ' || coalesce(palavras_chave, '')), 'C') ||
+        setweight(to_tsvector('portuguese', coalesce(texto, '')), 'D')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_pdf_ingestions_search_vector ON pdf_ingestions USING GIN (search_vector);
+
+-- Controle de exemplares (empréstimos): exemplares fora da estante sempre correspondem a empréstimos ativos.
+-- Livros anteriores a ele recebem 1 exemplar se disponíveis e nenhum se indisponíveis; o segundo UPDATE também
+-- corrige livros já migrados com exemplares "emprestados" sem empréstimo, que nenhuma devolução reporia.
+UPDATE books SET exemplares = 0, exemplares_disponiveis = 0 WHERE NOT disponivel AND exemplares_disponiveis > 0;
+UPDATE books b
+SET exemplares = b.exemplares_disponiveis
+        + (SELECT count(*) FROM loans l WHERE l.book_id = b.id AND l.devolvido_em IS NULL),
+    version = b.version + 1,
+    atualizado_em = now()
+WHERE b.exemplares > b.exemplares_disponiveis
+  AND b.exemplares - b.exemplares_disponiveis
+        > (SELECT count(*) FROM loans l WHERE l.book_id = b.id AND l.devolvido_em IS NULL);
@@ -0,0 +1,19 @@
+package com.biblioteca;
+
+import java.nio.charset.Charset;
+
+/**
+ * Equivalentes, para o H2 dos testes, de funções do PostgreSQL usadas em consultas nativas (ver schema-h2.sql).
+ */
+public final class H2Functions {
+
+	private H2Functions() {
+	}
+
+	/**
+	 * {@code convert_to(texto, codificação)}: os bytes do texto na codificação informada.
+	 */
+	public static byte[] convertTo(String text, String encoding) {
+		return text == null ? null : text.getBytes(Charset.forName(encoding));
+	}
+}
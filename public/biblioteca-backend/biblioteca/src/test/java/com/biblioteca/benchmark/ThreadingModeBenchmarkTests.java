@@ -0,0 +1,187 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.BibliotecaApplication;
+import com.biblioteca.model.Book;
+import com.biblioteca.repository.BookRepository;
+import com.biblioteca.service.PdfStorageService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compara a vazão da API com threads de plataforma e com threads virtuais sob alta concorrência.
+ * <p>
+ * Enquanto {@value #SLOW_DOWNLOADS} clientes lentos baixam PDFs (mais que as 200 threads padrão do Tomcat),
+ * {@value #API_CONCURRENCY} clientes fazem GET /books/{id} sem pausa por {@value #DURATION_SECONDS}s.
+ * O sendfile fica desligado, como atrás de TLS, para que cada download ocupe a thread da requisição, e o controle
+ * de admissão também, para medir só o modelo de threads.
+ * <p>
+ * Não roda no build padrão: {@code mvn -Pbenchmark test}. O modo virtual exige Java 21+.
+ */
+@Tag("benchmark")
+class ThreadingModeBenchmarkTests {
+
+	private static final int SLOW_DOWNLOADS = 250;
+
+	private static final int API_CONCURRENCY = 200;
+
+	private static final int DURATION_SECONDS = 10;
+
+	private static final int FILE_SIZE = 8 * 1024 * 1024;
+
+	@Test
+	void platformThreads() throws Exception {
+		run(false);
+	}
+
+	@Test
+	void virtualThreads() throws Exception {
+		assumeTrue(Runtime.version().feature() >= 21, "Threads virtuais exigem Java 21+");
+		run(true);
+	}
+
+	private void run(boolean virtual) throws Exception {
+		String mode = virtual ? "virtual" : "plataforma";
+		Path file = null;
+		WebServerFactoryCustomizer<TomcatServletWebServerFactory> noSendfile =
+				factory -> factory.addConnectorCustomizers(connector -> connector.setProperty("useSendfile", "false"));
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BibliotecaApplication.class)
+				.profiles("test")
+				.initializers(ctx -> ctx.getBeanFactory().registerSingleton("noSendfile", noSendfile))
+				.properties(
+						"server.port=0",
+						"spring.threads.virtual.enabled=" + virtual,
+						"biblioteca.admission.enabled=false",
+						"spring.datasource.url=jdbc:h2:mem:benchmark-" + mode + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+						"logging.level.com.biblioteca=WARN",
+						"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN")
+				.run()) {
+			String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+			file = context.getBean(PdfStorageService.class).getRoot().resolve("benchmark-" + mode + ".pdf");
+			Files.write(file, new byte[FILE_SIZE]);
+			Book book = new Book();
+			book.setTitulo("Benchmark");
+			book.setAutor("Autor");
+			book.setDataPublicacao(LocalDate.of(2020, 1, 1));
+			Long id = context.getBean(BookRepository.class).save(book).getId();
+
+			Result result = load(base, id, file.getFileName().toString());
+			System.out.printf("[benchmark] modo=%s req/s=%.0f p50=%dms p99=%dms erros=%d downloads=%d%n",
+					mode, result.completed / (double) DURATION_SECONDS, result.percentile(50), result.percentile(99),
+					result.errors, result.downloads);
+			assertThat(result.completed).isPositive();
+		} finally {
+			if (file != null) {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+	private Result load(String base, Long id, String filename) throws Exception {
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(30))
+				.build();
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicLong downloads = new AtomicLong();
+
+		// Clientes lentos: leem 16 KB a cada 20 ms até o fim do teste.
+		ExecutorService slow = Executors.newFixedThreadPool(SLOW_DOWNLOADS);
+		HttpRequest download = HttpRequest.newBuilder(URI.create(base + "/books/files/" + filename)).build();
+		for (int i = 0; i < SLOW_DOWNLOADS; i++) {
+			slow.submit(() -> {
+				while (running.get()) {
+					try (InputStream in = client.send(download, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+						byte[] buffer = new byte[16 * 1024];
+						while (running.get() && in.read(buffer) != -1) {
+							Thread.sleep(20);
+						}
+						downloads.incrementAndGet();
+					} catch (Exception e) {
+						return;
+					}
+				}
+			});
+		}
+		Thread.sleep(2000);
+
+		// Clientes rápidos da API, com concorrência limitada pelo semáforo.
+		Result result = new Result();
+		Semaphore inFlight = new Semaphore(API_CONCURRENCY);
+		HttpRequest api = HttpRequest.newBuilder(URI.create(base + "/books/" + id))
+				.timeout(Duration.ofSeconds(30))
+				.build();
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+		while (System.nanoTime() < end) {
+			if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+				continue;
+			}
+			long start = System.nanoTime();
+			client.sendAsync(api, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+				inFlight.release();
+				result.record(error == null && response.statusCode() == 200, System.nanoTime() - start);
+			});
+		}
+		inFlight.acquire(API_CONCURRENCY);
+
+		running.set(false);
+		slow.shutdownNow();
+		slow.awaitTermination(30, TimeUnit.SECONDS);
+		result.downloads = downloads.get();
+		return result;
+	}
+
+	private static final class Result {
+
+		private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+		private volatile long completed;
+
+		private volatile long errors;
+
+		private long downloads;
+
+		synchronized void record(boolean ok, long nanos) {
+			if (ok) {
+				completed++;
+				latencies.add(TimeUnit.NANOSECONDS.toMillis(nanos));
+			} else {
+				errors++;
+			}
+		}
+
+		long percentile(int p) {
+			List<Long> sorted = new ArrayList<>(latencies);
+			if (sorted.isEmpty()) {
+				return 0;
+			}
+			Collections.sort(sorted);
+			return sorted.get(Math.min(sorted.size() - 1, sorted.size() * p / 100));
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package com.biblioteca.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Controle de admissão: classes de endpoint com limites independentes, recusa imediata com 503 e Retry-After,
+ * e limite que cai com respostas lentas e volta a subir com respostas rápidas.
+ */
+class AdmissionControlFilterTests {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final AdmissionControlFilter filter = new AdmissionControlFilter(1, Duration.ZERO, 1, Duration.ZERO,
+			4, Duration.ZERO, Duration.ofSeconds(2), meterRegistry);
+
+	@Test
+	void endpointsAreClassified() {
+		assertThat(AdmissionControlFilter.classify("GET", "/books")).isEqualTo(AdmissionControlFilter.EndpointClass.LISTING);
+		assertThat(AdmissionControlFilter.classify("GET", "/authors/search")).isEqualTo(AdmissionControlFilter.EndpointClass.LISTING);
+		assertThat(AdmissionControlFilter.classify("POST", "/books")).isEqualTo(AdmissionControlFilter.EndpointClass.DEFAULT);
+		assertThat(AdmissionControlFilter.classify("GET", "/books/42")).isEqualTo(AdmissionControlFilter.EndpointClass.DEFAULT);
+		assertThat(AdmissionControlFilter.classify("POST", "/books/42/upload-pdf")).isEqualTo(AdmissionControlFilter.EndpointClass.TRANSFER);
+		assertThat(AdmissionControlFilter.classify("GET", "/books/files/livro.pdf")).isEqualTo(AdmissionControlFilter.EndpointClass.TRANSFER);
+		assertThat(AdmissionControlFilter.classify("GET", "/books/export")).isEqualTo(AdmissionControlFilter.EndpointClass.TRANSFER);
+		assertThat(AdmissionControlFilter.classify("PATCH", "/books/bulk")).isEqualTo(AdmissionControlFilter.EndpointClass.TRANSFER);
+		assertThat(AdmissionControlFilter.classify("POST", "/books/facets/rebuild")).isEqualTo(AdmissionControlFilter.EndpointClass.TRANSFER);
+		assertThat(AdmissionControlFilter.classify("GET", "/books/facets")).isEqualTo(AdmissionControlFilter.EndpointClass.DEFAULT);
+	}
+
+	@Test
+	void fullClassIsShedWithoutAffectingOthers() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		FilterChain slow = (request, response) -> {
+			started.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		CompletableFuture<MockHttpServletResponse> listing = CompletableFuture.supplyAsync(() -> perform("GET", "/books", slow));
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+		MockHttpServletResponse rejected = perform("GET", "/books/search", (request, response) -> { });
+		assertThat(rejected.getStatus()).isEqualTo(503);
+		assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+
+		// Outras classes continuam atendendo.
+		assertThat(perform("GET", "/books/1", (request, response) -> { }).getStatus()).isEqualTo(200);
+		assertThat(perform("GET", "/books/files/livro.pdf", (request, response) -> { }).getStatus()).isEqualTo(200);
+
+		assertThat(meterRegistry.get("biblioteca.admission.in.flight").tag("class", "listing").gauge().value()).isEqualTo(1);
+		assertThat(meterRegistry.get("biblioteca.admission.rejected").tag("class", "listing").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("biblioteca.admission.rejected").tag("class", "default").counter().count()).isZero();
+
+		release.countDown();
+		assertThat(listing.get(10, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+		assertThat(perform("GET", "/books", (request, response) -> { }).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void limitBacksOffOnSlowResponsesAndRecovers() {
+		long target = Duration.ofSeconds(5).toNanos();
+		AdaptiveLimiter limiter = new AdaptiveLimiter(20, target);
+
+		assertThat(limiter.tryAcquire()).isTrue();
+		limiter.release(target * 2);
+		assertThat(limiter.limit()).isEqualTo((int) (20 * AdaptiveLimiter.BACKOFF));
+
+		// Várias respostas lentas da mesma rajada reduzem uma vez só.
+		assertThat(limiter.tryAcquire()).isTrue();
+		limiter.release(target * 2);
+		assertThat(limiter.limit()).isEqualTo(15);
+
+		// Respostas rápidas com o limite em uso fazem o limite voltar a subir, sem passar do máximo.
+		for (int i = 0; i < 1000; i++) {
+			for (int j = 0; j < 10; j++) {
+				limiter.tryAcquire();
+			}
+			for (int j = 0; j < 10; j++) {
+				limiter.release(target / 2);
+			}
+		}
+		assertThat(limiter.limit()).isEqualTo(20);
+		assertThat(limiter.inFlight()).isZero();
+	}
+
+	private MockHttpServletResponse perform(String method, String uri, FilterChain chain) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		try {
+			filter.doFilter(request, response, chain);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+		return response;
+	}
+}
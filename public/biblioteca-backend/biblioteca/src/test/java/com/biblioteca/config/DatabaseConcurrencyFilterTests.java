@@ -0,0 +1,62 @@
+package com.biblioteca.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Permissões de banco no modo de threads virtuais: a exportação assíncrona segura a permissão até o fim da escrita,
+ * e uploads não ocupam permissão enquanto o corpo é recebido.
+ */
+class DatabaseConcurrencyFilterTests {
+
+	private final DatabasePermits permits = new DatabasePermits(1, 1, Duration.ofMillis(50));
+
+	private final DatabaseConcurrencyFilter filter = new DatabaseConcurrencyFilter(permits);
+
+	private static final FilterChain NOOP = (request, response) -> { };
+
+	@Test
+	void asyncRequestHoldsPermitUntilCompleted() {
+		MockHttpServletRequest export = new MockHttpServletRequest("GET", "/books/export");
+		export.setAsyncSupported(true);
+		perform(export, (request, response) -> request.startAsync());
+		assertThat(export.isAsyncStarted()).isTrue();
+
+		MockHttpServletResponse rejected = perform(new MockHttpServletRequest("GET", "/books"), NOOP);
+		assertThat(rejected.getStatus()).isEqualTo(503);
+		assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+		export.getAsyncContext().complete();
+		assertThat(perform(new MockHttpServletRequest("GET", "/books"), NOOP).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void uploadDoesNotTakePermit() {
+		assertThat(permits.tryAcquire()).isTrue();
+		try {
+			assertThat(perform(new MockHttpServletRequest("POST", "/books/1/upload-pdf"), NOOP).getStatus()).isEqualTo(200);
+			assertThat(perform(new MockHttpServletRequest("GET", "/books/files/livro.pdf"), NOOP).getStatus()).isEqualTo(200);
+			assertThat(perform(new MockHttpServletRequest("GET", "/books/1"), NOOP).getStatus()).isEqualTo(503);
+		} finally {
+			permits.release();
+		}
+		assertThat(perform(new MockHttpServletRequest("GET", "/books/1"), NOOP).getStatus()).isEqualTo(200);
+	}
+
+	private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain) {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		try {
+			filter.doFilter(request, response, chain);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+		return response;
+	}
+}
@@ -0,0 +1,63 @@
+package com.biblioteca.config;
+
+import com.biblioteca.model.Book;
+import com.biblioteca.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cabeçalho X-SQL-Count e métricas publicadas no formato Prometheus.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Test
+	void responsesReportSqlStatementCount() throws Exception {
+		Book book = new Book("Metricas", 100, true, LocalDate.of(2020, 1, 1), null);
+		book.setAutor("Autor de Teste");
+		Long id = bookRepository.save(book).getId();
+
+		String count = mockMvc.perform(get("/books/{id}", id))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(SqlStatementCountAdvice.HEADER);
+
+		assertThat(count).isNotNull();
+		assertThat(Long.parseLong(count)).isPositive();
+	}
+
+	@Test
+	void prometheusEndpointExposesApiJpaAndPoolMetrics() throws Exception {
+		mockMvc.perform(get("/books"));
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+				.andExpect(content().string(containsString("biblioteca_http_sql_statements")))
+				.andExpect(content().string(containsString("biblioteca_pdf_bytes_total")))
+				.andExpect(content().string(containsString("biblioteca_reads_total")))
+				.andExpect(content().string(containsString("hibernate_statements_total")))
+				.andExpect(content().string(containsString("hikaricp_connections_pending")));
+	}
+}
@@ -0,0 +1,51 @@
+package com.biblioteca.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Identificador de correlação devolvido na resposta e amostragem da linha de resumo das requisições.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RequestLoggingFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void requestIdIsPropagatedOrGenerated() throws Exception {
+		mockMvc.perform(get("/books").header(RequestLoggingFilter.REQUEST_ID_HEADER, "cliente-123"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(RequestLoggingFilter.REQUEST_ID_HEADER, "cliente-123"));
+
+		String generated = mockMvc.perform(get("/books").header(RequestLoggingFilter.REQUEST_ID_HEADER, "inválido\r\nX: y"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(RequestLoggingFilter.REQUEST_ID_HEADER);
+		assertThat(generated).matches("[0-9a-f]{16}");
+	}
+
+	@Test
+	void onlyFastSuccessfulReadsAreSampled() {
+		RequestLoggingFilter filter = new RequestLoggingFilter(0, Duration.ofSeconds(1));
+		long fast = Duration.ofMillis(5).toNanos();
+
+		assertThat(filter.shouldLog("GET", 200, fast)).isFalse();
+		assertThat(filter.shouldLog("GET", 404, fast)).isTrue();
+		assertThat(filter.shouldLog("GET", 200, Duration.ofSeconds(2).toNanos())).isTrue();
+		assertThat(filter.shouldLog("PUT", 200, fast)).isTrue();
+		assertThat(new RequestLoggingFilter(1, Duration.ofSeconds(1)).shouldLog("GET", 200, fast)).isTrue();
+	}
+}
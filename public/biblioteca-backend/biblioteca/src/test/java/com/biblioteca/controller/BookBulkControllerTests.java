@@ -0,0 +1,219 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.dto.BookDTO;
+import com.biblioteca.model.Author;
+import com.biblioteca.model.Book;
+import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.repository.BookRepository;
+import com.biblioteca.repository.PdfFileRepository;
+import com.biblioteca.service.BookService;
+import com.biblioteca.service.LoanService;
+import com.biblioteca.service.PdfStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exclusão e alteração em massa: seleção por IDs ou filtro em vários lotes (chunk-size 2 no perfil de testes),
+ * limpeza de vínculos, empréstimos e PDFs, e contagens devolvidas. A exportação tem tempo limite próprio.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookBulkControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private LoanService loanService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private PdfFileRepository pdfFileRepository;
+
+	@Autowired
+	private PdfStorageService pdfStorageService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Author withdrawn;
+
+	private Author kept;
+
+	@BeforeEach
+	void setUp() {
+		withdrawn = authorRepository.save(new Author("Editora Retirada", LocalDate.of(1900, 1, 1), "Brasileira", "Autor"));
+		kept = authorRepository.save(new Author("Editora Mantida", LocalDate.of(1900, 1, 1), "Brasileira", "Autor"));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		// Pela exclusão do serviço, para liberar os PDFs dos livros que sobraram.
+		bookRepository.findAll().forEach(book -> bookService.deleteBook(book.getId()));
+		authorRepository.deleteAll();
+	}
+
+	@Test
+	void deleteByFilterRemovesLinksLoansAndUnusedPdfs() throws Exception {
+		List<Long> ids = List.of(createBook("A", withdrawn, 1), createBook("B", withdrawn, 2),
+				createBook("C", withdrawn, 1), createBook("D", withdrawn, 1), createBook("E", withdrawn, 1));
+		Long other = createBook("Outro", kept, 1);
+		loanService.checkout(ids.get(1), "Ana");
+
+		// Um PDF só dos livros excluídos e outro compartilhado com um livro que fica.
+		String removed = uploadPdf("%PDF-1.4 so da editora retirada", ids.get(0), ids.get(2));
+		String shared = uploadPdf("%PDF-1.4 compartilhado", ids.get(3), other);
+		Path removedFile = pdfStorageService.pathOf(removed);
+
+		mockMvc.perform(post("/books/bulk-delete")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"filter\": {\"authorId\": " + withdrawn.getId() + "}}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.selecionados").value(5))
+				.andExpect(jsonPath("$.afetados").value(5))
+				.andExpect(jsonPath("$.emprestimosRemovidos").value(1))
+				.andExpect(jsonPath("$.pdfsRemovidos").value(1));
+
+		assertThat(bookRepository.findAllById(ids)).isEmpty();
+		assertThat(bookRepository.existsById(other)).isTrue();
+		assertThat(jdbcTemplate.queryForObject("select count(*) from book_author where author_id = ?", Integer.class,
+				withdrawn.getId())).isZero();
+		assertThat(authorRepository.existsById(withdrawn.getId())).isTrue();
+		assertThat(pdfFileRepository.existsById(removed)).isFalse();
+		assertThat(removedFile).doesNotExist();
+		assertThat(pdfFileRepository.findById(shared).orElseThrow().getReferencias()).isEqualTo(1);
+	}
+
+	@Test
+	void deleteByIdsIgnoresMissingOnes() throws Exception {
+		Long first = createBook("A", withdrawn, 1);
+		Long second = createBook("B", withdrawn, 1);
+		Long third = createBook("C", withdrawn, 1);
+
+		mockMvc.perform(post("/books/bulk-delete")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\": [" + third + ", " + first + ", " + first + ", 999999]}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.selecionados").value(2))
+				.andExpect(jsonPath("$.afetados").value(2));
+
+		assertThat(bookRepository.findAll()).extracting(Book::getId).containsExactly(second);
+	}
+
+	@Test
+	void patchWithdrawsShelfCopiesAndResizes() throws Exception {
+		Long lent = createBook("Emprestado", withdrawn, 3);
+		Long shelf = createBook("Na estante", withdrawn, 2);
+		Long other = createBook("Outro", kept, 2);
+		loanService.checkout(lent, "Ana");
+
+		mockMvc.perform(patch("/books/bulk")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"filter\": {\"authorId\": " + withdrawn.getId() + "}, \"disponivel\": false}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.selecionados").value(2))
+				.andExpect(jsonPath("$.afetados").value(2));
+
+		Book lentBook = bookRepository.findById(lent).orElseThrow();
+		assertThat(lentBook.getExemplares()).isEqualTo(1);
+		assertThat(lentBook.getExemplaresDisponiveis()).isZero();
+		assertThat(lentBook.isDisponivel()).isFalse();
+		assertThat(bookRepository.findById(shelf).orElseThrow().getExemplares()).isZero();
+		assertThat(bookRepository.findById(other).orElseThrow().isDisponivel()).isTrue();
+
+		// Repetir não altera nada; o novo total só vale para quem comporta os empréstimos ativos.
+		mockMvc.perform(patch("/books/bulk")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\": [" + lent + ", " + shelf + "], \"disponivel\": false}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.afetados").value(0));
+		mockMvc.perform(patch("/books/bulk")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\": [" + lent + ", " + shelf + ", " + other + "], \"exemplares\": 4}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.selecionados").value(3))
+				.andExpect(jsonPath("$.afetados").value(3));
+		assertThat(bookRepository.findById(lent).orElseThrow().getExemplaresDisponiveis()).isEqualTo(3);
+		assertThat(bookRepository.findById(shelf).orElseThrow().isDisponivel()).isTrue();
+	}
+
+	@Test
+	void exportUsesItsOwnAsyncTimeout() throws Exception {
+		MvcResult result = mockMvc.perform(get("/books/export").accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// O global (spring.mvc.async.request-timeout) continua valendo para as demais requisições.
+		assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+	}
+
+	@Test
+	void incompleteRequestsAreRejected() throws Exception {
+		mockMvc.perform(post("/books/bulk-delete").contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/books/bulk-delete").contentType(MediaType.APPLICATION_JSON).content("{\"filter\": {}}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(patch("/books/bulk").contentType(MediaType.APPLICATION_JSON).content("{\"ids\": [1]}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(patch("/books/bulk").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\": [1], \"disponivel\": true}"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private Long createBook(String titulo, Author author, int copies) {
+		BookDTO dto = new BookDTO();
+		dto.setTitulo(titulo);
+		dto.setPaginas(100);
+		dto.setDisponivel(true);
+		dto.setExemplares(copies);
+		dto.setDataPublicacao(LocalDate.of(2000, 1, 1));
+		dto.setAuthorIds(List.of(author.getId()));
+		return bookService.createBook(dto).getId();
+	}
+
+	private String uploadPdf(String content, Long... bookIds) throws Exception {
+		byte[] pdf = content.getBytes();
+		for (Long bookId : bookIds) {
+			mockMvc.perform(post("/books/{id}/upload-pdf", bookId)
+							.contentType(MediaType.APPLICATION_PDF)
+							.content(pdf))
+					.andExpect(status().isOk());
+		}
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(pdf));
+	}
+}
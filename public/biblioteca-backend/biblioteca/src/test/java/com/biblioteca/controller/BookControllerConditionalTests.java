@@ -0,0 +1,173 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.model.Author;
+import com.biblioteca.model.Book;
+import com.biblioteca.repository.AuthorNameRefreshRepository;
+import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.repository.BookRepository;
+import com.biblioteca.service.ResourceVersion;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag, Last-Modified, GET condicional (304) e PUT com If-Match (412) para livros.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookControllerConditionalTests {
+
+	private static final String BOOK_JSON = """
+			{"titulo": "%s", "authorIds": [%d], "paginas": 200, "disponivel": true, "dataPublicacao": "1899-01-01"}
+			""";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private AuthorNameRefreshRepository authorNameRefreshRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Long bookId;
+
+	private Long authorId;
+
+	@BeforeEach
+	void seed() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Author author = authorRepository.save(new Author("Machado de Assis", LocalDate.of(1839, 6, 21), "Brasileira", null));
+			Book book = new Book("Dom Casmurro", 200, true, LocalDate.of(1899, 1, 1), null);
+			book.setAuthors(Set.of(author));
+			book.setAutor(author.getName());
+			bookId = bookRepository.save(book).getId();
+			authorId = author.getId();
+		});
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookRepository.deleteAll();
+		authorRepository.deleteAll();
+	}
+
+	@Test
+	void unchangedBookIsAnsweredWith304WithoutLoadingIt() throws Exception {
+		String eTag = currentETag();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mockMvc.perform(get("/books/{id}", bookId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+		assertThat(statistics.getEntityLoadCount()).isZero();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void putWithStaleIfMatchIsRejected() throws Exception {
+		String original = currentETag();
+
+		mockMvc.perform(put("/books/{id}", bookId)
+						.header(HttpHeaders.IF_MATCH, original)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(BOOK_JSON.formatted("Dom Casmurro (2ª edição)", authorId)))
+				.andExpect(status().isOk());
+
+		String updated = currentETag();
+		assertThat(updated).isNotEqualTo(original);
+
+		mockMvc.perform(put("/books/{id}", bookId)
+						.header(HttpHeaders.IF_MATCH, original)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(BOOK_JSON.formatted("Outra edição", authorId)))
+				.andExpect(status().isPreconditionFailed());
+
+		mockMvc.perform(get("/books/{id}", bookId).header(HttpHeaders.IF_NONE_MATCH, original))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void renamingAnAuthorChangesTheBookETag() throws Exception {
+		String before = currentETag();
+
+		mockMvc.perform(put("/authors/{id}", authorId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Joaquim Maria Machado de Assis\"}"))
+				.andExpect(status().isOk());
+
+		assertThat(currentETag()).isNotEqualTo(before);
+
+		// A coluna autor do livro é atualizada em segundo plano.
+		for (int i = 0; i < 100 && authorNameRefreshRepository.existsById(authorId); i++) {
+			Thread.sleep(100);
+		}
+		assertThat(bookRepository.findById(bookId).map(Book::getAutor)).contains("Joaquim Maria Machado de Assis");
+	}
+
+	@Test
+	void eTagTracksEachAuthorVersionNotTheirSum() throws Exception {
+		Long coauthorId = transactionTemplate.execute(status -> {
+			Author coauthor = authorRepository.save(new Author("José de Alencar", LocalDate.of(1829, 5, 1), "Brasileira", null));
+			Book book = bookRepository.findById(bookId).orElseThrow();
+			book.getAuthors().add(coauthor);
+			return coauthor.getId();
+		});
+		mockMvc.perform(put("/authors/{id}", coauthorId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"José Martiniano de Alencar\"}"))
+				.andExpect(status().isOk());
+		// A atualização da coluna autor em segundo plano gera nova versão do livro.
+		for (int i = 0; i < 100 && authorNameRefreshRepository.existsById(coauthorId); i++) {
+			Thread.sleep(100);
+		}
+
+		// O ETag da validação (só colunas de versão) é o mesmo do livro carregado.
+		String eTag = currentETag();
+		mockMvc.perform(get("/books/{id}", bookId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+
+		// Mesma soma de versões dos autores, estados diferentes.
+		assertThat(ResourceVersion.of("book", 1L, 0, "1:1,2:0", null).eTag())
+				.isNotEqualTo(ResourceVersion.of("book", 1L, 0, "1:0,2:1", null).eTag());
+	}
+
+	private String currentETag() throws Exception {
+		return mockMvc.perform(get("/books/{id}", bookId))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+}
@@ -0,0 +1,245 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.model.Book;
+import com.biblioteca.repository.BookRepository;
+import com.biblioteca.repository.PdfFileRepository;
+import com.biblioteca.service.PdfStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.security.MessageDigest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Download de PDFs com Range, If-Range e validadores de cache; upload com armazenamento por conteúdo.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookControllerFileTests {
+
+	private static final String FILENAME = "range-test.pdf";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private PdfFileRepository pdfFileRepository;
+
+	@Autowired
+	private PdfStorageService pdfStorageService;
+
+	private Path file;
+
+	private byte[] bytes;
+
+	@BeforeEach
+	void createFile() throws Exception {
+		file = pdfStorageService.getRoot().resolve(FILENAME);
+		bytes = new byte[1000];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) i;
+		}
+		Files.write(file, bytes);
+	}
+
+	@AfterEach
+	void deleteFile() throws Exception {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	void fullDownloadAdvertisesRangeSupport() throws Exception {
+		mockMvc.perform(get("/books/files/{filename}", FILENAME))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 1000))
+				.andExpect(content().bytes(bytes));
+	}
+
+	@Test
+	void rangeRequestReturnsPartialContent() throws Exception {
+		mockMvc.perform(get("/books/files/{filename}", FILENAME).header(HttpHeaders.RANGE, "bytes=100-199"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/1000"))
+				.andExpect(content().bytes(Arrays.copyOfRange(bytes, 100, 200)));
+
+		mockMvc.perform(get("/books/files/{filename}", FILENAME).header(HttpHeaders.RANGE, "bytes=-10"))
+				.andExpect(status().isPartialContent())
+				.andExpect(content().bytes(Arrays.copyOfRange(bytes, 990, 1000)));
+	}
+
+	@Test
+	void unsatisfiableRangeReturns416() throws Exception {
+		mockMvc.perform(get("/books/files/{filename}", FILENAME).header(HttpHeaders.RANGE, "bytes=5000-"))
+				.andExpect(status().isRequestedRangeNotSatisfiable())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */1000"));
+	}
+
+	@Test
+	void staleIfRangeReturnsWholeFileAndMatchingETagReturns304() throws Exception {
+		String eTag = mockMvc.perform(get("/books/files/{filename}", FILENAME))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/books/files/{filename}", FILENAME)
+						.header(HttpHeaders.RANGE, "bytes=0-9")
+						.header(HttpHeaders.IF_RANGE, "\"outra-versao\""))
+				.andExpect(status().isOk())
+				.andExpect(content().bytes(bytes));
+
+		mockMvc.perform(get("/books/files/{filename}", FILENAME).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void pathTraversalIsRejected() throws Exception {
+		mockMvc.perform(get("/books/files/{filename}", ".."))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void identicalUploadsAreStoredOnceAndRemovedWithLastReference() throws Exception {
+		byte[] pdf = "%PDF-1.4 conteudo de teste deduplicado".getBytes();
+		String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(pdf));
+		Path stored = pdfStorageService.pathOf(hash);
+		Book first = bookRepository.save(newBook("Primeiro"));
+		Book second = bookRepository.save(newBook("Segundo"));
+
+		mockMvc.perform(post("/books/{id}/upload-pdf", first.getId())
+						.contentType(MediaType.APPLICATION_PDF)
+						.content(pdf))
+				.andExpect(status().isOk());
+		mockMvc.perform(multipart("/books/{id}/upload-pdf", second.getId())
+						.file("file", pdf))
+				.andExpect(status().isOk());
+
+		assertThat(bookRepository.findById(first.getId()).orElseThrow().getPdfPath())
+				.isEqualTo(bookRepository.findById(second.getId()).orElseThrow().getPdfPath())
+				.endsWith(hash + ".pdf");
+		assertThat(pdfFileRepository.findById(hash).orElseThrow().getReferencias()).isEqualTo(2);
+		assertThat(stored).exists();
+		mockMvc.perform(get("/books/files/{filename}", hash + ".pdf"))
+				.andExpect(status().isOk())
+				.andExpect(content().bytes(pdf));
+
+		mockMvc.perform(delete("/books/{id}", first.getId())).andExpect(status().isNoContent());
+		assertThat(pdfFileRepository.findById(hash).orElseThrow().getReferencias()).isEqualTo(1);
+		assertThat(stored).exists();
+
+		mockMvc.perform(delete("/books/{id}", second.getId())).andExpect(status().isNoContent());
+		assertThat(pdfFileRepository.existsById(hash)).isFalse();
+		assertThat(stored).doesNotExist();
+	}
+
+	@Test
+	void concurrentFirstUploadsOfSameContentShareOneRow() throws Exception {
+		byte[] pdf = "%PDF-1.4 primeiro envio simultaneo".getBytes();
+		String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(pdf));
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			ids.add(bookRepository.save(newBook("Simultaneo " + i)).getId());
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(ids.size());
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Integer>> uploads = new ArrayList<>();
+			for (Long id : ids) {
+				uploads.add(executor.submit(() -> {
+					start.await();
+					return mockMvc.perform(post("/books/{id}/upload-pdf", id)
+									.contentType(MediaType.APPLICATION_PDF)
+									.content(pdf))
+							.andReturn().getResponse().getStatus();
+				}));
+			}
+			start.countDown();
+			for (Future<Integer> upload : uploads) {
+				assertThat(upload.get(30, TimeUnit.SECONDS)).isEqualTo(200);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(pdfFileRepository.findById(hash).orElseThrow().getReferencias()).isEqualTo(ids.size());
+
+		for (Long id : ids) {
+			mockMvc.perform(delete("/books/{id}", id)).andExpect(status().isNoContent());
+		}
+		assertThat(pdfFileRepository.existsById(hash)).isFalse();
+	}
+
+	@Test
+	void uploadIsNotSavedWhenTheFileCannotBeStored() throws Exception {
+		byte[] pdf = "%PDF-1.4 sem lugar no disco".getBytes();
+		String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(pdf));
+		Book book = bookRepository.save(newBook("Sem arquivo"));
+		List<Path> stagedBefore = stagedFiles();
+		// Um arquivo comum no lugar da pasta do hash impede que o PDF seja movido para o caminho definitivo.
+		Path blocker = pdfStorageService.pathOf(hash).getParent();
+		Files.createDirectories(blocker.getParent());
+		Files.write(blocker, new byte[0]);
+		try {
+			assertThatThrownBy(() -> mockMvc.perform(post("/books/{id}/upload-pdf", book.getId())
+							.contentType(MediaType.APPLICATION_PDF)
+							.content(pdf)))
+					.hasRootCauseInstanceOf(FileAlreadyExistsException.class);
+		} finally {
+			Files.delete(blocker);
+		}
+
+		assertThat(bookRepository.findById(book.getId()).orElseThrow().getPdfPath()).isNull();
+		assertThat(pdfFileRepository.existsById(hash)).isFalse();
+		assertThat(stagedFiles()).isEqualTo(stagedBefore);
+		bookRepository.delete(book);
+	}
+
+	private List<Path> stagedFiles() throws Exception {
+		try (Stream<Path> staged = Files.list(pdfStorageService.getRoot().resolve("tmp"))) {
+			return staged.sorted().toList();
+		}
+	}
+
+	private static Book newBook(String titulo) {
+		Book book = new Book();
+		book.setTitulo(titulo);
+		book.setAutor("Autor de Teste");
+		book.setDataPublicacao(LocalDate.of(2020, 1, 1));
+		return book;
+	}
+}
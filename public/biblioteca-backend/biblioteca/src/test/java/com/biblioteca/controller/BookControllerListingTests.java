@@ -0,0 +1,173 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.model.Author;
+import com.biblioteca.model.Book;
+import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.repository.BookRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listagens paginadas por chave: o cursor de {@code X-Next-Cursor} continua exatamente após a última linha da
+ * página, sem lacunas nem repetições, e o {@code Link rel="next"} mantém os filtros da listagem de livros.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookControllerListingTests {
+
+	private static final int BOOKS = 21;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private List<Author> authors;
+
+	// IDs dos livros na ordem de criação; o livro i é do autor i % 3, disponível se i é par
+	// e publicado i dias após 01/01/2000.
+	private List<Long> bookIds;
+
+	@BeforeEach
+	void seed() {
+		transactionTemplate.executeWithoutResult(status -> {
+			authors = authorRepository.saveAll(IntStream.range(0, 3)
+					.mapToObj(i -> new Author("Autor " + i, LocalDate.of(1950, 1, 1), "Brasileira", "Biografia " + i))
+					.toList());
+			List<Book> books = new ArrayList<>();
+			for (int i = 0; i < BOOKS; i++) {
+				Book book = new Book("Livro " + i, 100, i % 2 == 0, LocalDate.of(2000, 1, 1).plusDays(i), null);
+				book.setAuthors(Set.of(authors.get(i % 3)));
+				book.setAutor(authors.get(i % 3).getName());
+				books.add(book);
+			}
+			bookIds = bookRepository.saveAll(books).stream().map(Book::getId).toList();
+		});
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookRepository.deleteAll();
+		authorRepository.deleteAll();
+	}
+
+	@Test
+	void cursorContinuesRightAfterTheLastRow() throws Exception {
+		MvcResult first = mockMvc.perform(get("/books").param("limit", "7"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(CursorHeaders.NEXT_CURSOR, bookIds.get(6).toString()))
+				.andReturn();
+		assertThat(idsOf(first)).isEqualTo(bookIds.subList(0, 7));
+
+		MvcResult second = mockMvc.perform(get("/books").param("after", bookIds.get(6).toString()).param("limit", "7"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(CursorHeaders.NEXT_CURSOR, bookIds.get(13).toString()))
+				.andReturn();
+		assertThat(idsOf(second)).isEqualTo(bookIds.subList(7, 14));
+
+		// Última página cheia: ainda há cursor, e a página seguinte vem vazia e sem cursor.
+		MvcResult last = mockMvc.perform(get("/books").param("after", bookIds.get(13).toString()).param("limit", "7"))
+				.andExpect(header().string(CursorHeaders.NEXT_CURSOR, bookIds.get(20).toString()))
+				.andReturn();
+		assertThat(idsOf(last)).isEqualTo(bookIds.subList(14, 21));
+		mockMvc.perform(get("/books").param("after", bookIds.get(20).toString()).param("limit", "7"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(CursorHeaders.NEXT_CURSOR))
+				.andExpect(header().doesNotExist(HttpHeaders.LINK));
+	}
+
+	@Test
+	void linkWalksEveryBookOnce() throws Exception {
+		assertThat(walk("/books?limit=4")).isEqualTo(bookIds);
+		assertThat(walk("/books?limit=" + BOOKS)).isEqualTo(bookIds);
+	}
+
+	@Test
+	void disponivelFiltersAcrossPages() throws Exception {
+		assertThat(walk("/books?disponivel=true&limit=4")).isEqualTo(booksWhere(i -> i % 2 == 0));
+		assertThat(walk("/books?disponivel=false&limit=4")).isEqualTo(booksWhere(i -> i % 2 == 1));
+	}
+
+	@Test
+	void publicationDateRangeIsInclusive() throws Exception {
+		assertThat(walk("/books?dataPublicacaoDe=2000-01-06&dataPublicacaoAte=2000-01-10&limit=2"))
+				.isEqualTo(booksWhere(i -> i >= 5 && i <= 9));
+		assertThat(walk("/books?dataPublicacaoDe=2000-01-16&limit=2")).isEqualTo(booksWhere(i -> i >= 15));
+		assertThat(walk("/books?dataPublicacaoAte=2000-01-03&limit=2")).isEqualTo(booksWhere(i -> i <= 2));
+	}
+
+	@Test
+	void authorIdFiltersAndCombinesWithOtherFilters() throws Exception {
+		Long authorId = authors.get(0).getId();
+		assertThat(walk("/books?authorId=" + authorId + "&limit=3")).isEqualTo(booksWhere(i -> i % 3 == 0));
+		assertThat(walk("/books?authorId=" + authorId + "&disponivel=true&dataPublicacaoAte=2000-01-13&limit=3"))
+				.isEqualTo(booksWhere(i -> i % 3 == 0 && i % 2 == 0 && i <= 12));
+	}
+
+	@Test
+	void authorsArePagedByCursor() throws Exception {
+		List<Long> authorIds = authors.stream().map(Author::getId).toList();
+		MvcResult first = mockMvc.perform(get("/authors").param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(CursorHeaders.NEXT_CURSOR, authorIds.get(1).toString()))
+				.andReturn();
+		assertThat(idsOf(first)).isEqualTo(authorIds.subList(0, 2));
+
+		assertThat(walk("/authors?limit=2")).isEqualTo(authorIds);
+	}
+
+	/**
+	 * Percorre a listagem seguindo {@code Link rel="next"} e devolve os IDs de todas as páginas, na ordem.
+	 */
+	private List<Long> walk(String url) throws Exception {
+		List<Long> ids = new ArrayList<>();
+		URI next = URI.create(url);
+		while (next != null) {
+			MvcResult page = mockMvc.perform(get(next)).andExpect(status().isOk()).andReturn();
+			ids.addAll(idsOf(page));
+			String link = page.getResponse().getHeader(HttpHeaders.LINK);
+			next = link == null ? null : URI.create(link.substring(1, link.indexOf('>')));
+		}
+		return ids;
+	}
+
+	private List<Long> booksWhere(IntPredicate condition) {
+		return IntStream.range(0, BOOKS).filter(condition).mapToObj(bookIds::get).toList();
+	}
+
+	private static List<Long> idsOf(MvcResult result) throws Exception {
+		List<Number> ids = JsonPath.read(result.getResponse().getContentAsString(), "$[*].id");
+		return ids.stream().map(Number::longValue).toList();
+	}
+}
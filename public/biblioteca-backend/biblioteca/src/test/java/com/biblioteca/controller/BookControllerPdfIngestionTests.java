@@ -0,0 +1,109 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.model.Book;
+import com.biblioteca.model.PdfIngestion;
+import com.biblioteca.repository.BookRepository;
+import com.biblioteca.repository.PdfIngestionRepository;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Extração assíncrona de páginas, metadados e texto após o upload do PDF.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookControllerPdfIngestionTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private PdfIngestionRepository pdfIngestionRepository;
+
+	@Test
+	void uploadIsProcessedInBackgroundAndUpdatesBook() throws Exception {
+		Book book = new Book();
+		book.setTitulo("Livro com PDF");
+		book.setAutor("Autor de Teste");
+		book.setPaginas(1);
+		book.setDataPublicacao(LocalDate.of(2020, 1, 1));
+		book = bookRepository.save(book);
+
+		mockMvc.perform(post("/books/{id}/upload-pdf", book.getId())
+						.contentType(MediaType.APPLICATION_PDF)
+						.content(pdf(3, "Manual de processamento", "Capitulo sobre bibliotecas")))
+				.andExpect(status().isOk());
+
+		PdfIngestion.Status current = awaitStatus(book.getId());
+		assertThat(current).isEqualTo(PdfIngestion.Status.CONCLUIDO);
+
+		mockMvc.perform(get("/books/{id}/pdf/status", book.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("CONCLUIDO"))
+				.andExpect(jsonPath("$.paginas").value(3))
+				.andExpect(jsonPath("$.tituloPdf").value("Manual de processamento"))
+				.andExpect(jsonPath("$.texto").doesNotExist());
+		assertThat(bookRepository.findById(book.getId()).orElseThrow().getPaginas()).isEqualTo(3);
+		assertThat(pdfIngestionRepository.findById(book.getId()).orElseThrow().getTexto())
+				.contains("Capitulo sobre bibliotecas");
+
+		mockMvc.perform(delete("/books/{id}", book.getId()));
+		mockMvc.perform(get("/books/{id}/pdf/status", book.getId()))
+				.andExpect(status().isNotFound());
+	}
+
+	private PdfIngestion.Status awaitStatus(Long bookId) throws InterruptedException {
+		PdfIngestion.Status current = null;
+		for (int i = 0; i < 100; i++) {
+			current = pdfIngestionRepository.findById(bookId).map(PdfIngestion::getStatus).orElse(null);
+			if (current == PdfIngestion.Status.CONCLUIDO || current == PdfIngestion.Status.ERRO) {
+				break;
+			}
+			Thread.sleep(100);
+		}
+		return current;
+	}
+
+	private static byte[] pdf(int pages, String title, String text) throws Exception {
+		try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+			document.getDocumentInformation().setTitle(title);
+			for (int i = 0; i < pages; i++) {
+				PDPage page = new PDPage();
+				document.addPage(page);
+				try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+					content.beginText();
+					content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+					content.newLineAtOffset(72, 700);
+					content.showText(text + " " + (i + 1));
+					content.endText();
+				}
+			}
+			document.save(out);
+			return out.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.model.Author;
+import com.biblioteca.model.Book;
+import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.repository.BookRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que as leituras de livros não fazem uma consulta extra por livro para carregar os autores
+ * e que a listagem usa a projeção, sem carregar entidades.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookControllerQueryCountTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Statistics statistics;
+
+	private Long firstBookId;
+
+	@BeforeEach
+	void seed() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		firstBookId = transactionTemplate.execute(status -> seedBooks());
+	}
+
+	private Long seedBooks() {
+		List<Author> authors = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			authors.add(new Author("Autor " + i, LocalDate.of(1950, 1, 1), "Brasileira", "Biografia " + i));
+		}
+		authors = authorRepository.saveAll(authors);
+
+		List<Book> books = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			Book book = new Book("Livro " + i, 100 + i, true, LocalDate.of(2000, 1, 1).plusDays(i), null);
+			book.setAuthors(Set.of(authors.get(i % 5), authors.get((i + 1) % 5)));
+			book.setAutor(authors.get(i % 5).getName() + ", " + authors.get((i + 1) % 5).getName());
+			books.add(book);
+		}
+		return bookRepository.saveAll(books).get(0).getId();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookRepository.deleteAll();
+		authorRepository.deleteAll();
+	}
+
+	@Test
+	void listingBooksDoesNotQueryAuthorsPerBook() throws Exception {
+		long small = statementsFor("/books?limit=10", 10);
+		long large = statementsFor("/books?limit=50", 50);
+
+		assertThat(large).isEqualTo(1);
+		assertThat(large).isEqualTo(small);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void listingBooksFilteredByAuthorUsesOneQuery() throws Exception {
+		Long authorId = authorRepository.findAll().get(0).getId();
+		statistics.clear();
+		mockMvc.perform(get("/books").param("authorId", authorId.toString()).param("limit", "100"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(24))
+				.andExpect(jsonPath("$[0].authors").doesNotExist());
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void gettingBookByIdLoadsAuthorsInOneQuery() throws Exception {
+		statistics.clear();
+		mockMvc.perform(get("/books/{id}", firstBookId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.authors.length()").value(2));
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void searchPagesBeyondTheResultWindowRunNoQuery() throws Exception {
+		statistics.clear();
+		// 2147483647 * 20 dá a volta no int; a página continua fora da janela de resultados.
+		mockMvc.perform(get("/books/search").param("q", "Livro").param("page", String.valueOf(Integer.MAX_VALUE)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$").isEmpty());
+		mockMvc.perform(get("/authors/search").param("q", "Autor").param("page", String.valueOf(Integer.MAX_VALUE)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$").isEmpty());
+
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	private long statementsFor(String url, int expectedSize) throws Exception {
+		statistics.clear();
+		mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(expectedSize))
+				.andExpect(jsonPath("$[0].autor").isNotEmpty())
+				.andExpect(jsonPath("$[0].authors").doesNotExist());
+		return statistics.getPrepareStatementCount();
+	}
+}
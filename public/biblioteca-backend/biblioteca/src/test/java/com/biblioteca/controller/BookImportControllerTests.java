@@ -0,0 +1,151 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.model.Author;
+import com.biblioteca.model.Book;
+import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.repository.BookRepository;
+import com.biblioteca.service.BookImportService;
+import com.biblioteca.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Importação em massa (POST /books/batch) em JSON e NDJSON, atravessando vários lotes (chunk-size 2 no perfil de
+ * testes): erros por linha com a numeração da entrada, e linhas válidas gravadas mesmo quando outro lote falha.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookImportControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookImportService bookImportService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	private Author author;
+
+	@BeforeEach
+	void setUp() {
+		author = authorRepository.save(new Author("Autora Importada", LocalDate.of(1900, 1, 1), "Brasileira", "Autor"));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookRepository.findAll().forEach(book -> bookService.deleteBook(book.getId()));
+		authorRepository.deleteAll();
+	}
+
+	@Test
+	void jsonReportsRowErrorsByPosition() throws Exception {
+		String body = "[" + String.join(",",
+				row("A", author.getId()),
+				"{\"paginas\": 10, \"dataPublicacao\": \"2001-01-01\", \"authorIds\": [" + author.getId() + "]}",
+				row("C", 999999L),
+				row("D", author.getId()),
+				row("E", author.getId())) + "]";
+
+		mockMvc.perform(post("/books/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.recebidos").value(5))
+				.andExpect(jsonPath("$.criados").value(3))
+				.andExpect(jsonPath("$.erros.length()").value(2))
+				.andExpect(jsonPath("$.erros[0].linha").value(2))
+				.andExpect(jsonPath("$.erros[0].mensagem").value("O título é obrigatório."))
+				.andExpect(jsonPath("$.erros[1].linha").value(3))
+				.andExpect(jsonPath("$.erros[1].mensagem").value("Autor não encontrado com o ID: 999999"));
+
+		assertThat(bookRepository.findAll()).extracting(Book::getTitulo).containsExactlyInAnyOrder("A", "D", "E");
+	}
+
+	@Test
+	void ndjsonReportsRowErrorsByLineNumber() throws Exception {
+		String body = String.join("\n",
+				row("A", author.getId()),
+				"{\"titulo\": \"quebrado\"",
+				"",
+				"{\"titulo\": \"  \", \"paginas\": 10, \"dataPublicacao\": \"2001-01-01\", \"authorIds\": [" + author.getId() + "]}",
+				row("E", author.getId()),
+				row("F", 999999L),
+				row("G", author.getId())) + "\n";
+
+		mockMvc.perform(post("/books/batch").contentType(MediaType.APPLICATION_NDJSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.recebidos").value(6))
+				.andExpect(jsonPath("$.criados").value(3))
+				.andExpect(jsonPath("$.erros.length()").value(3))
+				.andExpect(jsonPath("$.erros[0].linha").value(2))
+				.andExpect(jsonPath("$.erros[0].mensagem").value(startsWith("JSON inválido")))
+				.andExpect(jsonPath("$.erros[1].linha").value(4))
+				.andExpect(jsonPath("$.erros[1].mensagem").value("O título é obrigatório."))
+				.andExpect(jsonPath("$.erros[2].linha").value(6))
+				.andExpect(jsonPath("$.erros[2].mensagem").value("Autor não encontrado com o ID: 999999"));
+
+		assertThat(bookRepository.findAll()).extracting(Book::getTitulo).containsExactlyInAnyOrder("A", "E", "G");
+	}
+
+	@Test
+	void failedChunkDoesNotLoseOtherChunks() throws Exception {
+		// O lote das linhas 3 e 4 falha no banco; os lotes vizinhos são gravados mesmo assim.
+		BookService failing = mock(BookService.class, AdditionalAnswers.delegatesTo(bookService));
+		doThrow(new DataIntegrityViolationException("falha simulada"))
+				.when(failing).importChunk(any(), argThat(lines -> lines.get(0) == 3));
+		BookImportService target = AopTestUtils.getTargetObject(bookImportService);
+		ReflectionTestUtils.setField(target, "bookService", failing);
+		try {
+			String body = String.join("\n", row("A", author.getId()), row("B", author.getId()),
+					row("C", author.getId()), row("D", author.getId()), row("E", author.getId()));
+
+			mockMvc.perform(post("/books/batch").contentType(MediaType.APPLICATION_NDJSON).content(body))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.recebidos").value(5))
+					.andExpect(jsonPath("$.criados").value(3))
+					.andExpect(jsonPath("$.erros.length()").value(2))
+					.andExpect(jsonPath("$.erros[0].linha").value(3))
+					.andExpect(jsonPath("$.erros[0].mensagem").value("Falha ao gravar o lote: falha simulada"))
+					.andExpect(jsonPath("$.erros[1].linha").value(4));
+		} finally {
+			ReflectionTestUtils.setField(target, "bookService", bookService);
+		}
+
+		assertThat(bookRepository.findAll()).extracting(Book::getTitulo).containsExactlyInAnyOrder("A", "B", "E");
+	}
+
+	private static String row(String titulo, Long authorId) {
+		return "{\"titulo\": \"" + titulo + "\", \"paginas\": 10, \"dataPublicacao\": \"2001-01-01\", \"authorIds\": ["
+				+ authorId + "]}";
+	}
+}
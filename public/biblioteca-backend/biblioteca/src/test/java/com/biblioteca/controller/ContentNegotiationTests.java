@@ -0,0 +1,126 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.model.Book;
+import com.biblioteca.repository.BookRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Negociação de formato (JSON, CBOR e Smile) e compressão gzip nas listagens e na exportação,
+ * com o servidor embutido de verdade (a compressão é feita pelo Tomcat, fora do alcance do MockMvc).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ContentNegotiationTests {
+
+	private static final int BOOKS = 40;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@BeforeEach
+	void seed() {
+		List<Book> books = new ArrayList<>();
+		for (int i = 0; i < BOOKS; i++) {
+			Book book = new Book("Título do livro número " + i, 100 + i, true, LocalDate.of(1950, 1, 1).plusDays(i), null);
+			book.setAutor("Autor Sobrenome " + i);
+			books.add(book);
+		}
+		bookRepository.saveAll(books);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookRepository.deleteAll();
+	}
+
+	@Test
+	void listingIsNegotiatedAsJsonCborOrSmileWithSameContent() throws Exception {
+		JsonNode json = read(get("/books", "application/json", null), new ObjectMapper());
+		JsonNode cbor = read(get("/books", "application/cbor", null), new CBORMapper());
+		JsonNode smile = read(get("/books", "application/x-jackson-smile", null), new SmileMapper());
+
+		assertThat(json).hasSize(BOOKS);
+		assertThat(cbor).isEqualTo(json);
+		assertThat(smile).isEqualTo(json);
+		assertThat(json.get(0).get("dataPublicacao").asText()).isEqualTo("1950-01-01");
+	}
+
+	@Test
+	void jsonIsTheDefaultFormat() throws Exception {
+		HttpResponse<byte[]> response = get("/books", "*/*", null);
+		assertThat(response.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValueSatisfying(
+				type -> assertThat(type).startsWith("application/json"));
+	}
+
+	@Test
+	void listingsAreGzipCompressedOnRequest() throws Exception {
+		HttpResponse<byte[]> plain = get("/books", "application/json", null);
+		HttpResponse<byte[]> gzip = get("/books", "application/json", "gzip");
+
+		assertThat(gzip.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).contains("gzip");
+		assertThat(gzip.body().length).isLessThan(plain.body().length);
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.body()))) {
+			assertThat(in.readAllBytes()).isEqualTo(plain.body());
+		}
+	}
+
+	@Test
+	void exportIsAvailableAsCborSequence() throws Exception {
+		HttpResponse<byte[]> response = get("/books/export", "application/cbor-seq", "gzip");
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).contains("gzip");
+
+		CBORMapper mapper = new CBORMapper();
+		List<JsonNode> items;
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()));
+			 MappingIterator<JsonNode> iterator = mapper.readerFor(JsonNode.class).readValues(in)) {
+			items = iterator.readAll();
+		}
+		assertThat(items).hasSize(BOOKS);
+		assertThat(items.get(0).get("titulo").asText()).isEqualTo("Título do livro número 0");
+	}
+
+	private HttpResponse<byte[]> get(String path, String accept, String encoding) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header(HttpHeaders.ACCEPT, accept);
+		if (encoding != null) {
+			request.header(HttpHeaders.ACCEPT_ENCODING, encoding);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	private static JsonNode read(HttpResponse<byte[]> response, ObjectMapper mapper) throws Exception {
+		assertThat(response.statusCode()).isEqualTo(200);
+		return mapper.readTree(response.body());
+	}
+}
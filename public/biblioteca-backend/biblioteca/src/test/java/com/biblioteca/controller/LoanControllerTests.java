@@ -0,0 +1,231 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.exception.ConflictException;
+import com.biblioteca.model.Author;
+import com.biblioteca.model.Book;
+import com.biblioteca.model.Loan;
+import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.repository.BookRepository;
+import com.biblioteca.repository.LoanRepository;
+import com.biblioteca.service.LoanService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Empréstimos e devoluções: contagem de exemplares, conflitos e empréstimos simultâneos do mesmo título.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoanControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private LoanService loanService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private LoanRepository loanRepository;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@AfterEach
+	void cleanUp() {
+		loanRepository.deleteAll();
+		bookRepository.deleteAll();
+		authorRepository.deleteAll();
+	}
+
+	@Test
+	void checkoutAndReturnUpdateAvailability() throws Exception {
+		Long bookId = saveBook(1);
+
+		String body = mockMvc.perform(post("/books/{id}/checkout", bookId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"leitor\": \"Ana\"}"))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.bookId").value(bookId))
+				.andExpect(jsonPath("$.leitor").value("Ana"))
+				.andReturn().getResponse().getContentAsString();
+		Long loanId = Long.valueOf(body.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+		Book lent = bookRepository.findById(bookId).orElseThrow();
+		assertThat(lent.getExemplaresDisponiveis()).isZero();
+		assertThat(lent.isDisponivel()).isFalse();
+
+		mockMvc.perform(post("/books/{id}/checkout", bookId))
+				.andExpect(status().isConflict());
+
+		mockMvc.perform(post("/books/{id}/return", bookId).param("loanId", loanId.toString()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.devolvidoEm").isNotEmpty());
+		mockMvc.perform(post("/books/{id}/return", bookId).param("loanId", loanId.toString()))
+				.andExpect(status().isConflict());
+
+		Book returned = bookRepository.findById(bookId).orElseThrow();
+		assertThat(returned.getExemplaresDisponiveis()).isEqualTo(1);
+		assertThat(returned.isDisponivel()).isTrue();
+	}
+
+	@Test
+	void checkoutOfUnknownBookReturnsNotFound() throws Exception {
+		mockMvc.perform(post("/books/{id}/checkout", 999_999L))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void updateCannotShrinkBelowLentCopies() throws Exception {
+		Long bookId = saveBook(3);
+		loanService.checkout(bookId, null);
+		loanService.checkout(bookId, null);
+
+		String json = """
+				{"titulo": "Livro", "paginas": 100, "disponivel": true, "exemplares": %d, "dataPublicacao": "1900-01-01"}
+				""";
+		mockMvc.perform(put("/books/{id}", bookId).contentType(MediaType.APPLICATION_JSON).content(json.formatted(1)))
+				.andExpect(status().isConflict());
+		mockMvc.perform(put("/books/{id}", bookId).contentType(MediaType.APPLICATION_JSON).content(json.formatted(5)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.exemplares").value(5))
+				.andExpect(jsonPath("$.exemplaresDisponiveis").value(3));
+	}
+
+	@Test
+	void unavailableMeansNoCopiesRatherThanCopiesOnLoan() throws Exception {
+		Long authorId = authorRepository.save(new Author("Autor", LocalDate.of(1900, 1, 1), "Brasileira", null)).getId();
+		String body = mockMvc.perform(post("/books").contentType(MediaType.APPLICATION_JSON)
+						.content("""
+								{"titulo": "Fora do acervo", "paginas": 100, "disponivel": false, "dataPublicacao": "1900-01-01", "authorIds": [%d]}
+								""".formatted(authorId)))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.exemplares").value(0))
+				.andExpect(jsonPath("$.exemplaresDisponiveis").value(0))
+				.andExpect(jsonPath("$.disponivel").value(false))
+				.andReturn().getResponse().getContentAsString();
+		Long created = JsonPath.parse(body).read("$.id", Long.class);
+		mockMvc.perform(post("/books").contentType(MediaType.APPLICATION_JSON)
+						.content("""
+								{"titulo": "Contraditório", "paginas": 100, "disponivel": false, "exemplares": 2, "dataPublicacao": "1900-01-01", "authorIds": [%d]}
+								""".formatted(authorId)))
+				.andExpect(status().isBadRequest());
+
+		// Na atualização, disponivel = false retira da estante os exemplares não emprestados.
+		Long bookId = saveBook(3);
+		loanService.checkout(bookId, null);
+		String json = """
+				{"titulo": "Livro", "paginas": 100, "disponivel": %s, "dataPublicacao": "1900-01-01"}
+				""";
+		mockMvc.perform(put("/books/{id}", bookId).contentType(MediaType.APPLICATION_JSON).content(json.formatted(false)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.exemplares").value(1))
+				.andExpect(jsonPath("$.exemplaresDisponiveis").value(0))
+				.andExpect(jsonPath("$.disponivel").value(false));
+		mockMvc.perform(put("/books/{id}", bookId).contentType(MediaType.APPLICATION_JSON).content(json.formatted(true)))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(put("/books/{id}", created).contentType(MediaType.APPLICATION_JSON).content(json.formatted(true)))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void concurrentCheckoutsNeverLendMoreCopiesThanExist() throws Exception {
+		int copies = 25;
+		int requests = 200;
+		Long bookId = saveBook(copies);
+
+		List<Future<Loan>> results = runConcurrently(requests, () -> loanService.checkout(bookId, null));
+		List<Loan> loans = new ArrayList<>();
+		int conflicts = 0;
+		for (Future<Loan> result : results) {
+			try {
+				loans.add(result.get());
+			} catch (ExecutionException e) {
+				assertThat(e.getCause()).isInstanceOf(ConflictException.class);
+				conflicts++;
+			}
+		}
+
+		assertThat(loans).hasSize(copies);
+		assertThat(conflicts).isEqualTo(requests - copies);
+		assertThat(loanRepository.findActiveByBookId(bookId)).hasSize(copies);
+		assertThat(bookRepository.findById(bookId).map(Book::getExemplaresDisponiveis)).contains(0);
+
+		// Devoluções simultâneas, cada empréstimo devolvido duas vezes: só a primeira vale.
+		List<Loan> twice = new ArrayList<>(loans);
+		twice.addAll(loans);
+		Iterator<Loan> next = twice.iterator();
+		List<Future<Loan>> returns = runConcurrently(twice.size(), () -> {
+			Loan loan;
+			synchronized (next) {
+				loan = next.next();
+			}
+			return loanService.returnLoan(bookId, loan.getId());
+		});
+		long succeeded = returns.stream().filter(f -> {
+			try {
+				f.get();
+				return true;
+			} catch (Exception e) {
+				return false;
+			}
+		}).count();
+
+		assertThat(succeeded).isEqualTo(copies);
+		Book book = bookRepository.findById(bookId).orElseThrow();
+		assertThat(book.getExemplaresDisponiveis()).isEqualTo(copies);
+		assertThat(book.isDisponivel()).isTrue();
+	}
+
+	private static <T> List<Future<T>> runConcurrently(int tasks, Callable<T> task) throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<T>> futures = new ArrayList<>();
+		for (int i = 0; i < tasks; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				return task.call();
+			}));
+		}
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+		return futures;
+	}
+
+	private Long saveBook(int copies) {
+		Book book = new Book("Livro", 100, true, LocalDate.of(1900, 1, 1), null);
+		book.setAutor("Autor");
+		book.setExemplares(copies);
+		book.setExemplaresDisponiveis(copies);
+		return bookRepository.save(book).getId();
+	}
+}
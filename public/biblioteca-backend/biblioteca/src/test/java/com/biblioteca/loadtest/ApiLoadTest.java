@@ -0,0 +1,348 @@
+package com.biblioteca.loadtest;
+
+import com.biblioteca.BibliotecaApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de carga de ponta a ponta da API REST.
+ * <p>
+ * Sobe a aplicação numa porta aleatória com o perfil de testes (H2 em memória), cadastra autores, livros e PDFs
+ * pela própria API e dispara uma carga mista de leituras, escritas e downloads com um cliente HTTP assíncrono
+ * e concorrência fixa. Ao final grava o relatório em JSON: vazão e latências p50/p95/p99 por operação.
+ * <p>
+ * Não roda no build padrão: {@code mvn -Ploadtest test}. Parâmetros (propriedades de sistema):
+ * <ul>
+ *   <li>loadtest.authors, loadtest.books, loadtest.pdfs: volume do cadastro inicial (padrão 100, 5000, 20)</li>
+ *   <li>loadtest.concurrency: requisições simultâneas (padrão 64)</li>
+ *   <li>loadtest.warmup, loadtest.duration: segundos de aquecimento e de medição (padrão 10 e 30)</li>
+ *   <li>loadtest.report: arquivo do relatório (padrão target/loadtest-report.json)</li>
+ *   <li>loadtest.datasource.url, loadtest.datasource.username, loadtest.datasource.password: usar um PostgreSQL
+ *       local no lugar do H2 (habilita também a operação de busca textual)</li>
+ * </ul>
+ */
+@Tag("loadtest")
+class ApiLoadTest {
+
+	private static final String BOOK_JSON = """
+			{"titulo": "%s", "authorIds": [%d, %d], "paginas": %d, "disponivel": true, "dataPublicacao": "2001-01-01"}
+			""";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+
+	private String base;
+
+	private final List<Long> authorIds = new ArrayList<>();
+
+	private final List<Long> bookIds = new ArrayList<>();
+
+	private final List<String> pdfNames = new ArrayList<>();
+
+	@Test
+	void mixedWorkload() throws Exception {
+		int authors = Integer.getInteger("loadtest.authors", 100);
+		int books = Integer.getInteger("loadtest.books", 5000);
+		int pdfs = Integer.getInteger("loadtest.pdfs", 20);
+		int concurrency = Integer.getInteger("loadtest.concurrency", 64);
+		int warmup = Integer.getInteger("loadtest.warmup", 10);
+		int duration = Integer.getInteger("loadtest.duration", 30);
+		Path report = Paths.get(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+		String datasourceUrl = System.getProperty("loadtest.datasource.url");
+		boolean postgres = datasourceUrl != null && datasourceUrl.startsWith("jdbc:postgresql:");
+
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(BibliotecaApplication.class)
+				.properties(
+						"server.port=0",
+						"logging.level.com.biblioteca=WARN",
+						"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+						"spring.jpa.show-sql=false");
+		if (postgres) {
+			builder.properties(
+					"spring.datasource.url=" + datasourceUrl,
+					"spring.datasource.username=" + System.getProperty("loadtest.datasource.username", "postgres"),
+					"spring.datasource.password=" + System.getProperty("loadtest.datasource.password", ""));
+		} else {
+			builder.profiles("test");
+		}
+
+		try (ConfigurableApplicationContext context = builder.run()) {
+			base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+			seed(authors, books, pdfs);
+
+			Map<String, Operation> operations = operations(postgres);
+			run(operations, concurrency, warmup);
+			operations.values().forEach(Operation::reset);
+			long elapsed = run(operations, concurrency, duration);
+
+			ObjectNode json = report(operations, elapsed, Map.of(
+					"authors", authors, "books", books, "pdfs", pdfs, "concurrency", concurrency,
+					"durationSeconds", duration, "database", postgres ? "postgresql" : "h2"));
+			Files.createDirectories(report.toAbsolutePath().getParent());
+			objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), json);
+			System.out.println("[loadtest] relatório em " + report.toAbsolutePath());
+			System.out.println(json.toPrettyString());
+
+			assertThat(json.get("requests").asLong()).isPositive();
+		}
+	}
+
+	// Cadastro inicial pela API: autores um a um, livros pela importação em massa e PDFs distintos.
+	private void seed(int authors, int books, int pdfs) throws Exception {
+		for (int i = 0; i < authors; i++) {
+			String body = "{\"name\": \"Autor de Carga " + i + "\", \"nacionalidade\": \"Brasileira\"}";
+			authorIds.add(objectMapper.readTree(send(post("/authors", body)).body()).get("id").asLong());
+		}
+
+		int chunk = 500;
+		for (int start = 0; start < books; start += chunk) {
+			StringBuilder body = new StringBuilder("[");
+			for (int i = start; i < Math.min(books, start + chunk); i++) {
+				if (i > start) {
+					body.append(',');
+				}
+				body.append(bookJson("Livro de carga " + i));
+			}
+			send(post("/books/batch", body.append(']').toString()));
+		}
+		JsonNode page = objectMapper.readTree(send(get("/books?limit=500")).body());
+		Long after = null;
+		while (page.size() > 0) {
+			page.forEach(book -> bookIds.add(book.get("id").asLong()));
+			after = bookIds.get(bookIds.size() - 1);
+			page = objectMapper.readTree(send(get("/books?limit=500&after=" + after)).body());
+		}
+
+		for (int i = 0; i < pdfs && i < bookIds.size(); i++) {
+			HttpRequest upload = HttpRequest.newBuilder(URI.create(base + "/books/" + bookIds.get(i) + "/upload-pdf"))
+					.header("Content-Type", "application/pdf")
+					.POST(HttpRequest.BodyPublishers.ofByteArray(pdf(i)))
+					.build();
+			String message = send(upload).body();
+			pdfNames.add(message.substring(message.lastIndexOf(' ') + 1));
+		}
+	}
+
+	private Map<String, Operation> operations(boolean postgres) {
+		Map<String, Operation> operations = new LinkedHashMap<>();
+		operations.put("listBooks", new Operation(25, () -> get("/books?limit=50&after=" + randomBook() / 2)));
+		operations.put("getBook", new Operation(30, () -> get("/books/" + randomBook())));
+		operations.put("getAuthor", new Operation(10, () -> get("/authors/" + random(authorIds))));
+		if (postgres) {
+			operations.put("searchBooks", new Operation(5, () -> get("/books/search?q=carga")));
+		}
+		operations.put("createBook", new Operation(8, () -> post("/books", bookJson("Livro novo"))));
+		operations.put("updateBook", new Operation(5, () -> HttpRequest.newBuilder(URI.create(base + "/books/" + randomBook()))
+				.header("Content-Type", "application/json")
+				.PUT(HttpRequest.BodyPublishers.ofString(bookJson("Livro alterado")))
+				.build()));
+		if (!pdfNames.isEmpty()) {
+			operations.put("downloadPdf", new Operation(7, () -> get("/books/files/" + random(pdfNames))));
+			operations.put("downloadPdfRange", new Operation(10, () -> HttpRequest.newBuilder(URI.create(base + "/books/files/" + random(pdfNames)))
+					.header("Range", "bytes=0-1023")
+					.build()));
+		}
+		return operations;
+	}
+
+	/**
+	 * Mantém {@code concurrency} requisições em andamento pelo tempo indicado, sorteando a operação pelos pesos.
+	 *
+	 * @return duração efetiva em nanossegundos
+	 */
+	private long run(Map<String, Operation> operations, int concurrency, int seconds) throws InterruptedException {
+		List<Operation> weighted = new ArrayList<>();
+		operations.values().forEach(op -> {
+			for (int i = 0; i < op.weight; i++) {
+				weighted.add(op);
+			}
+		});
+		Semaphore inFlight = new Semaphore(concurrency);
+		long start = System.nanoTime();
+		long end = start + TimeUnit.SECONDS.toNanos(seconds);
+		while (System.nanoTime() < end) {
+			if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+				continue;
+			}
+			Operation op = weighted.get(ThreadLocalRandom.current().nextInt(weighted.size()));
+			long sent = System.nanoTime();
+			CompletableFuture<HttpResponse<Void>> response = client.sendAsync(op.request.get(), HttpResponse.BodyHandlers.discarding());
+			response.whenComplete((r, error) -> {
+				op.record(error == null && r.statusCode() < 400, System.nanoTime() - sent);
+				inFlight.release();
+			});
+		}
+		inFlight.acquire(concurrency);
+		return System.nanoTime() - start;
+	}
+
+	private ObjectNode report(Map<String, Operation> operations, long elapsedNanos, Map<String, Object> config) {
+		double seconds = elapsedNanos / 1e9;
+		ObjectNode json = objectMapper.createObjectNode();
+		json.set("config", objectMapper.valueToTree(config));
+		long requests = 0;
+		long errors = 0;
+		List<Long> all = new ArrayList<>();
+		ArrayNode ops = json.putArray("operations");
+		for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+			Operation op = entry.getValue();
+			List<Long> latencies = op.snapshot();
+			requests += latencies.size() + op.errors;
+			errors += op.errors;
+			all.addAll(latencies);
+			ObjectNode node = ops.addObject();
+			node.put("name", entry.getKey());
+			node.put("requests", latencies.size() + op.errors);
+			node.put("errors", op.errors);
+			node.put("throughputPerSecond", round(latencies.size() / seconds));
+			putLatencies(node, latencies);
+		}
+		json.put("elapsedSeconds", round(seconds));
+		json.put("requests", requests);
+		json.put("errors", errors);
+		json.put("throughputPerSecond", round((requests - errors) / seconds));
+		putLatencies(json, all);
+		return json;
+	}
+
+	private static void putLatencies(ObjectNode node, List<Long> latencies) {
+		latencies.sort(null);
+		ObjectNode ms = node.putObject("latencyMs");
+		ms.put("p50", percentile(latencies, 50));
+		ms.put("p95", percentile(latencies, 95));
+		ms.put("p99", percentile(latencies, 99));
+		ms.put("max", latencies.isEmpty() ? 0 : round(latencies.get(latencies.size() - 1) / 1e6));
+	}
+
+	private static double percentile(List<Long> sorted, int p) {
+		if (sorted.isEmpty()) {
+			return 0;
+		}
+		int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+		return round(sorted.get(Math.max(0, index)) / 1e6);
+	}
+
+	private static double round(double value) {
+		return Math.round(value * 100) / 100.0;
+	}
+
+	private String bookJson(String titulo) {
+		return BOOK_JSON.formatted(titulo, random(authorIds), random(authorIds), 100 + ThreadLocalRandom.current().nextInt(500));
+	}
+
+	private long randomBook() {
+		return random(bookIds);
+	}
+
+	private static <T> T random(List<T> values) {
+		return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+	}
+
+	private HttpRequest get(String path) {
+		return HttpRequest.newBuilder(URI.create(base + path)).build();
+	}
+
+	private HttpRequest post(String path, String json) {
+		return HttpRequest.newBuilder(URI.create(base + path))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json))
+				.build();
+	}
+
+	private HttpResponse<String> send(HttpRequest request) throws Exception {
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() >= 400) {
+			throw new IllegalStateException(request.method() + " " + request.uri() + " -> " + response.statusCode() + ": " + response.body());
+		}
+		return response;
+	}
+
+	// PDFs de tamanhos variados (10 a 60 páginas) e conteúdo distinto, para não serem deduplicados.
+	private static byte[] pdf(int index) throws Exception {
+		try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+			for (int page = 0; page < 10 + index % 50; page++) {
+				PDPage pdfPage = new PDPage();
+				document.addPage(pdfPage);
+				try (PDPageContentStream content = new PDPageContentStream(document, pdfPage)) {
+					content.beginText();
+					content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+					content.newLineAtOffset(72, 700);
+					content.showText("Documento " + index + ", pagina " + page);
+					content.endText();
+				}
+			}
+			document.save(out);
+			return out.toByteArray();
+		}
+	}
+
+	private static final class Operation {
+
+		private final int weight;
+
+		private final Supplier<HttpRequest> request;
+
+		private List<Long> latencies = new ArrayList<>();
+
+		private long errors;
+
+		Operation(int weight, Supplier<HttpRequest> request) {
+			this.weight = weight;
+			this.request = request;
+		}
+
+		synchronized void record(boolean ok, long nanos) {
+			if (ok) {
+				latencies.add(nanos);
+			} else {
+				errors++;
+			}
+		}
+
+		synchronized void reset() {
+			latencies = new ArrayList<>();
+			errors = 0;
+		}
+
+		synchronized List<Long> snapshot() {
+			return new ArrayList<>(latencies);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.AuthorDTO;
+import com.biblioteca.dto.BookDTO;
+import com.biblioteca.model.Author;
+import com.biblioteca.model.Book;
+import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.repository.BookRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica o cache de autores: leituras por ID e por nome não voltam ao banco,
+ * a criação de livros resolve autores pelo cache e alterações invalidam as entradas.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthorCacheTests {
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private Author author;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		author = authorRepository.save(new Author("Machado de Assis", LocalDate.of(1839, 6, 21), "Brasileira", "Escritor"));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookRepository.deleteAll();
+		authorRepository.deleteAll();
+	}
+
+	@Test
+	void repeatedLookupsByIdAndNameAreServedFromCache() {
+		authorService.getAuthorById(author.getId());
+		authorService.getAuthorByName("Machado de Assis");
+
+		statistics.clear();
+		assertThat(authorService.getAuthorById(author.getId())).isPresent();
+		assertThat(authorService.getAuthorByName("Machado de Assis")).isPresent();
+		// Pelo serviço, a leitura repetida por ID nem chega ao Hibernate (ver SingleFlight); pelo repositório, vem do cache.
+		assertThat(authorRepository.findById(author.getId())).isPresent();
+
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+		assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+		assertThat(statistics.getQueryCacheHitCount()).isPositive();
+	}
+
+	@Test
+	void creatingBookResolvesAuthorsWithoutQueryingThem() {
+		BookDTO dto = new BookDTO();
+		dto.setTitulo("Dom Casmurro");
+		dto.setPaginas(256);
+		dto.setDisponivel(true);
+		dto.setDataPublicacao(LocalDate.of(1899, 1, 1));
+		dto.setAuthorIds(List.of(author.getId()));
+
+		statistics.clear();
+		Book book = bookService.createBook(dto);
+
+		assertThat(book.getAutor()).isEqualTo("Machado de Assis");
+		assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void updateAndDeleteInvalidateCachedAuthor() {
+		authorService.getAuthorById(author.getId());
+		authorService.getAuthorByName("Machado de Assis");
+
+		AuthorDTO changes = new AuthorDTO();
+		changes.setName("Joaquim Maria Machado de Assis");
+		changes.setNacionalidade("Brasileira");
+		authorService.updateAuthor(author.getId(), changes, null);
+
+		assertThat(authorService.getAuthorById(author.getId()))
+				.map(Author::getName)
+				.contains("Joaquim Maria Machado de Assis");
+		assertThat(authorService.getAuthorByName("Machado de Assis")).isEmpty();
+
+		authorService.deleteAuthor(author.getId());
+		assertThat(authorService.getAuthorById(author.getId())).isEmpty();
+	}
+}
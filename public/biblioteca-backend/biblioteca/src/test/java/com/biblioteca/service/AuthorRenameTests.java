@@ -0,0 +1,150 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.AuthorDTO;
+import com.biblioteca.dto.BookDTO;
+import com.biblioteca.model.Author;
+import com.biblioteca.model.AuthorNameRefresh;
+import com.biblioteca.model.Book;
+import com.biblioteca.repository.AuthorNameRefreshRepository;
+import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica a propagação da renomeação de autores para books.autor: todos os lotes são processados,
+ * livros com vários autores mantêm os demais nomes e repetir o processamento não altera livros já corretos.
+ */
+@SpringBootTest(properties = "biblioteca.authors.rename-chunk-size=3")
+@ActiveProfiles("test")
+class AuthorRenameTests {
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private AuthorRenameService authorRenameService;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private AuthorNameRefreshRepository authorNameRefreshRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Author author;
+
+	private Author coauthor;
+
+	private final List<Long> bookIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		author = authorRepository.save(new Author("Machado de Assis", LocalDate.of(1839, 6, 21), "Brasileira", "Escritor"));
+		coauthor = authorRepository.save(new Author("José de Alencar", LocalDate.of(1829, 5, 1), "Brasileira", "Escritor"));
+		for (int i = 0; i < 10; i++) {
+			List<Long> authorIds = i == 0 ? List.of(author.getId(), coauthor.getId()) : List.of(author.getId());
+			bookIds.add(bookService.createBook(book("Livro " + i, authorIds)).getId());
+		}
+	}
+
+	@AfterEach
+	void cleanUp() {
+		authorNameRefreshRepository.deleteAll();
+		bookRepository.deleteAll();
+		authorRepository.deleteAll();
+	}
+
+	@Test
+	void renamingAuthorRefreshesAllLinkedBooksInBackground() throws InterruptedException {
+		AuthorDTO changes = new AuthorDTO();
+		changes.setName("Joaquim Maria Machado de Assis");
+		changes.setNacionalidade("Brasileira");
+		authorService.updateAuthor(author.getId(), changes, null);
+
+		awaitRefresh(author.getId());
+
+		List<Book> books = bookRepository.findAllById(bookIds);
+		assertThat(books).hasSize(10);
+		assertThat(books).filteredOn(book -> !book.getId().equals(bookIds.get(0)))
+				.extracting(Book::getAutor)
+				.containsOnly("Joaquim Maria Machado de Assis");
+		assertThat(bookRepository.findById(bookIds.get(0)).map(Book::getAutor))
+				.contains("Joaquim Maria Machado de Assis, José de Alencar");
+	}
+
+	@Test
+	void refreshIsResumableAndIdempotent() {
+		// Simula uma renomeação interrompida: o nome já mudou, mas nenhum lote foi processado.
+		transactionTemplate.executeWithoutResult(status -> {
+			Author current = authorRepository.findById(coauthor.getId()).orElseThrow();
+			current.setName("Alencar");
+			authorNameRefreshRepository.save(new AuthorNameRefresh(coauthor.getId()));
+		});
+
+		authorRenameService.refresh(coauthor.getId());
+
+		Book book = bookRepository.findById(bookIds.get(0)).orElseThrow();
+		assertThat(book.getAutor()).isEqualTo("Alencar, Machado de Assis");
+		assertThat(authorNameRefreshRepository.existsById(coauthor.getId())).isFalse();
+		long version = book.getVersion();
+
+		// Reprocessar não regrava livros que já estão corretos.
+		transactionTemplate.executeWithoutResult(status ->
+				authorNameRefreshRepository.save(new AuthorNameRefresh(coauthor.getId())));
+		authorRenameService.refresh(coauthor.getId());
+
+		assertThat(bookRepository.findById(bookIds.get(0)).map(Book::getVersion)).contains(version);
+		assertThat(bookRepository.findById(bookIds.get(1)).map(Book::getAutor)).contains("Machado de Assis");
+	}
+
+	@Test
+	void namesAreOrderedLikeTheDatabaseRefresh() {
+		Author erico = authorRepository.save(new Author("Érico Verissimo", LocalDate.of(1905, 12, 17), "Brasileira", "Escritor"));
+		Author ze = authorRepository.save(new Author("Zé Rodrix", LocalDate.of(1947, 11, 25), "Brasileira", "Músico"));
+		Author lowercase = authorRepository.save(new Author("ana cristina cesar", LocalDate.of(1952, 6, 2), "Brasileira", "Poeta"));
+		Long id = bookService.createBook(book("Antologia", List.of(erico.getId(), ze.getId(), lowercase.getId()))).getId();
+
+		// Ordem pelos bytes em UTF-8, não pela collation: maiúsculas antes de minúsculas, acentuadas por último.
+		assertThat(bookRepository.findById(id).map(Book::getAutor)).contains("Zé Rodrix, ana cristina cesar, Érico Verissimo");
+		Integer refreshed = transactionTemplate.execute(status -> bookRepository.refreshAuthorNames(List.of(id), Instant.now()));
+		assertThat(refreshed).isZero();
+	}
+
+	private void awaitRefresh(Long authorId) throws InterruptedException {
+		for (int i = 0; i < 100 && authorNameRefreshRepository.existsById(authorId); i++) {
+			Thread.sleep(100);
+		}
+		assertThat(authorNameRefreshRepository.existsById(authorId)).isFalse();
+	}
+
+	private static BookDTO book(String titulo, List<Long> authorIds) {
+		BookDTO dto = new BookDTO();
+		dto.setTitulo(titulo);
+		dto.setPaginas(100);
+		dto.setDisponivel(true);
+		dto.setDataPublicacao(LocalDate.of(1900, 1, 1));
+		dto.setAuthorIds(authorIds);
+		return dto;
+	}
+}
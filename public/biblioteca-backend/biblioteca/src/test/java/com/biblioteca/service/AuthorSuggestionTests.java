@@ -0,0 +1,128 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.AuthorDTO;
+import com.biblioteca.dto.AuthorSuggestion;
+import com.biblioteca.dto.BookDTO;
+import com.biblioteca.model.Author;
+import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sugestões de autores: prefixo de qualquer palavra sem distinção de acentos e maiúsculas, ordem pelo número
+ * de livros e índice acompanhando criação, renomeação e exclusão só após o commit.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthorSuggestionTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private AuthorSuggestionIndex authorSuggestionIndex;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Author verissimo;
+
+	private Author souza;
+
+	@BeforeEach
+	void setUp() {
+		verissimo = authorService.createAuthor(author("Érico Veríssimo"));
+		souza = authorService.createAuthor(author("Erico Souza"));
+		Author lispector = authorService.createAuthor(author("Clarice Lispector"));
+		createBook(verissimo);
+		createBook(verissimo);
+		createBook(lispector);
+		// A contagem de livros chega ao índice pela reconstrução.
+		authorSuggestionIndex.rebuild();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookRepository.deleteAll();
+		authorRepository.deleteAll();
+		authorSuggestionIndex.rebuild();
+	}
+
+	@Test
+	void prefixMatchesAnyWordIgnoringAccentsAndCase() throws Exception {
+		assertThat(authorSuggestionIndex.suggest("eri", 10)).containsExactly(
+				new AuthorSuggestion(verissimo.getId(), "Érico Veríssimo", 2),
+				new AuthorSuggestion(souza.getId(), "Erico Souza", 0));
+		assertThat(authorSuggestionIndex.suggest("VERISS", 10)).extracting(AuthorSuggestion::id).containsExactly(verissimo.getId());
+		assertThat(authorSuggestionIndex.suggest("érico  v", 10)).extracting(AuthorSuggestion::id).containsExactly(verissimo.getId());
+		assertThat(authorSuggestionIndex.suggest("ssimo", 10)).isEmpty();
+		assertThat(authorSuggestionIndex.suggest(" ", 10)).isEmpty();
+
+		mockMvc.perform(get("/authors/suggest").param("prefix", "eri").param("limit", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].name").value("Érico Veríssimo"))
+				.andExpect(jsonPath("$[0].livros").value(2));
+	}
+
+	@Test
+	void indexFollowsCommittedChanges() {
+		AuthorDTO changes = new AuthorDTO();
+		changes.setName("Rubem Braga");
+		authorService.updateAuthor(souza.getId(), changes, null);
+		assertThat(authorSuggestionIndex.suggest("eri", 10)).extracting(AuthorSuggestion::id).containsExactly(verissimo.getId());
+		assertThat(authorSuggestionIndex.suggest("braga", 10)).extracting(AuthorSuggestion::name).containsExactly("Rubem Braga");
+
+		authorService.deleteAuthor(souza.getId());
+		assertThat(authorSuggestionIndex.suggest("rub", 10)).isEmpty();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			authorService.createAuthor(author("Rachel de Queiroz"));
+			status.setRollbackOnly();
+		});
+		assertThat(authorSuggestionIndex.suggest("queiroz", 10)).isEmpty();
+	}
+
+	private void createBook(Author author) {
+		BookDTO dto = new BookDTO();
+		dto.setTitulo("Livro de " + author.getName());
+		dto.setPaginas(100);
+		dto.setDisponivel(true);
+		dto.setDataPublicacao(LocalDate.of(1950, 1, 1));
+		dto.setAuthorIds(List.of(author.getId()));
+		bookService.createBook(dto);
+	}
+
+	private static Author author(String name) {
+		return new Author(name, LocalDate.of(1900, 1, 1), "Brasileira", "Escritor");
+	}
+}
@@ -0,0 +1,204 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.AuthorDTO;
+import com.biblioteca.dto.BookBulkUpdateDTO;
+import com.biblioteca.dto.BookDTO;
+import com.biblioteca.dto.BookFacetsDTO;
+import com.biblioteca.dto.FacetCount;
+import com.biblioteca.model.Author;
+import com.biblioteca.model.Loan;
+import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.repository.BookRepository;
+import com.biblioteca.repository.LoanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Facetas do acervo: as contagens ajustadas por criação, empréstimo, devolução, alteração de autor e operações
+ * em massa continuam iguais às de uma recontagem completa, transações desfeitas não alteram nada e escritas
+ * confirmadas durante uma recontagem não se perdem.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookFacetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookFacetService bookFacetService;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookBulkService bookBulkService;
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private LoanService loanService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private LoanRepository loanRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Author brasileira;
+
+	private Author portuguesa;
+
+	@BeforeEach
+	void setUp() {
+		brasileira = authorService.createAuthor(author("Autora Brasileira", "Brasileira"));
+		portuguesa = authorService.createAuthor(author("Autor Português", "Portuguesa"));
+		bookFacetService.rebuild();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		loanRepository.deleteAll();
+		bookRepository.deleteAll();
+		authorRepository.deleteAll();
+		bookFacetService.rebuild();
+	}
+
+	@Test
+	void countsFollowWritesAndMatchRebuild() throws Exception {
+		Long coauthored = createBook(1950, 1, brasileira, portuguesa);
+		Long single = createBook(1950, 2, brasileira);
+		createBook(1999, 1, portuguesa);
+
+		mockMvc.perform(get("/books/facets"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.total").value(3))
+				.andExpect(jsonPath("$.anoPublicacao[0].valor").value("1950"))
+				.andExpect(jsonPath("$.anoPublicacao[0].total").value(2))
+				.andExpect(jsonPath("$.nacionalidade[0].valor").value("Brasileira"))
+				.andExpect(jsonPath("$.nacionalidade[0].total").value(2));
+
+		// Só o empréstimo do último exemplar e a devolução do primeiro mudam a disponibilidade.
+		Loan loan = loanService.checkout(coauthored, "Ana");
+		loanService.checkout(single, "Bruno");
+		assertThat(bookFacetService.getFacets().disponivel())
+				.containsExactly(new FacetCount("true", 2), new FacetCount("false", 1));
+		loanService.returnLoan(coauthored, loan.getId());
+		assertThat(bookFacetService.getFacets().disponivel()).containsExactly(new FacetCount("true", 3));
+
+		AuthorDTO changes = new AuthorDTO();
+		changes.setName(portuguesa.getName());
+		changes.setDataNascimento(portuguesa.getDataNascimento());
+		changes.setNacionalidade("Brasileira");
+		authorService.updateAuthor(portuguesa.getId(), changes, null);
+		assertThat(bookFacetService.getFacets().nacionalidade()).containsExactly(new FacetCount("Brasileira", 3));
+
+		// Um exemplar só, e ele está emprestado: o livro passa para 2001 e fica indisponível.
+		bookService.updateBook(single, bookDTO(2001, 1, brasileira), null);
+		BookBulkUpdateDTO withdraw = new BookBulkUpdateDTO();
+		withdraw.setIds(List.of(coauthored));
+		withdraw.setDisponivel(false);
+		bookBulkService.updateBooks(withdraw);
+		bookService.deleteBook(createBook(1999, 1, brasileira));
+
+		BookFacetsDTO incremental = bookFacetService.getFacets();
+		assertThat(incremental.anoPublicacao()).containsExactly(new FacetCount("1950", 1), new FacetCount("1999", 1),
+				new FacetCount("2001", 1));
+		assertThat(incremental.disponivel()).containsExactly(new FacetCount("true", 1), new FacetCount("false", 2));
+		assertFacetsEqual(incremental, bookFacetService.rebuild());
+	}
+
+	@Test
+	void rolledBackWritesAreNotCounted() {
+		createBook(1950, 1, brasileira);
+		BookFacetsDTO before = bookFacetService.getFacets();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			createBook(1960, 1, portuguesa);
+			status.setRollbackOnly();
+		});
+
+		assertThat(bookFacetService.getFacets()).isSameAs(before);
+		assertFacetsEqual(before, bookFacetService.rebuild());
+	}
+
+	@Test
+	void writeCommittedDuringRecountIsKept() {
+		createBook(1950, 1, brasileira);
+		// A recontagem pausa depois da primeira contagem, com a leitura já fixada, e outro livro é confirmado.
+		BookRepository pausing = mock(BookRepository.class, AdditionalAnswers.delegatesTo(bookRepository));
+		doAnswer(invocation -> {
+			List<FacetCount> rows = bookRepository.countByAnoPublicacao();
+			CompletableFuture.runAsync(() -> createBook(1960, 1, portuguesa)).get(10, TimeUnit.SECONDS);
+			return rows;
+		}).when(pausing).countByAnoPublicacao();
+
+		ReflectionTestUtils.setField(bookFacetService, "bookRepository", pausing);
+		BookFacetsDTO afterRecount;
+		try {
+			afterRecount = bookFacetService.rebuild();
+		} finally {
+			ReflectionTestUtils.setField(bookFacetService, "bookRepository", bookRepository);
+		}
+
+		assertThat(afterRecount.anoPublicacao()).containsExactly(new FacetCount("1950", 1), new FacetCount("1960", 1));
+		assertThat(afterRecount.nacionalidade())
+				.containsExactly(new FacetCount("Brasileira", 1), new FacetCount("Portuguesa", 1));
+		assertFacetsEqual(afterRecount, bookFacetService.rebuild());
+	}
+
+	private static void assertFacetsEqual(BookFacetsDTO actual, BookFacetsDTO expected) {
+		assertThat(actual.total()).isEqualTo(expected.total());
+		assertThat(actual.anoPublicacao()).isEqualTo(expected.anoPublicacao());
+		assertThat(actual.disponivel()).isEqualTo(expected.disponivel());
+		assertThat(actual.nacionalidade()).isEqualTo(expected.nacionalidade());
+	}
+
+	private Long createBook(int ano, int copies, Author... authors) {
+		return bookService.createBook(bookDTO(ano, copies, authors)).getId();
+	}
+
+	private static BookDTO bookDTO(int ano, int copies, Author... authors) {
+		BookDTO dto = new BookDTO();
+		dto.setTitulo("Livro de " + ano);
+		dto.setPaginas(100);
+		dto.setExemplares(copies);
+		dto.setDataPublicacao(LocalDate.of(ano, 1, 1));
+		dto.setAuthorIds(Arrays.stream(authors).map(Author::getId).toList());
+		return dto;
+	}
+
+	private static Author author(String name, String nacionalidade) {
+		return new Author(name, LocalDate.of(1900, 1, 1), nacionalidade, "Escritor");
+	}
+}
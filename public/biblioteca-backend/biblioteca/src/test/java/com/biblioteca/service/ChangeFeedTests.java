@@ -0,0 +1,171 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.BookDTO;
+import com.biblioteca.dto.BookSummary;
+import com.biblioteca.dto.ChangeDTO;
+import com.biblioteca.dto.ChangeFeedDTO;
+import com.biblioteca.model.Author;
+import com.biblioteca.model.ChangeLogEntry;
+import com.biblioteca.repository.AuthorRepository;
+import com.biblioteca.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Feed de alterações: ordem das alterações, exclusões como marcadores sem dados e cursor que não pula
+ * transações confirmadas depois de outras mais novas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChangeFeedTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ChangeFeedService changeFeedService;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Author author;
+
+	private long start;
+
+	@BeforeEach
+	void setUp() {
+		author = authorRepository.save(new Author("Machado de Assis", LocalDate.of(1839, 6, 21), "Brasileira", "Escritor"));
+		start = drain(0).cursor();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookRepository.deleteAll();
+		authorRepository.deleteAll();
+	}
+
+	@Test
+	void createUpdateAndDeleteAppearInOrder() throws Exception {
+		Long id = bookService.createBook(book("Dom Casmurro")).getId();
+		bookService.updateBook(id, book("Dom Casmurro (edição revista)"), null);
+		Long deleted = bookService.createBook(book("Rascunho")).getId();
+		bookService.deleteBook(deleted);
+
+		ChangeFeedDTO feed = drain(start);
+		assertThat(feed.changes()).extracting(ChangeDTO::id, ChangeDTO::operacao).containsExactly(
+				tuple(id, ChangeLogEntry.Operacao.CRIADO),
+				tuple(id, ChangeLogEntry.Operacao.ATUALIZADO),
+				tuple(deleted, ChangeLogEntry.Operacao.CRIADO),
+				tuple(deleted, ChangeLogEntry.Operacao.EXCLUIDO));
+		assertThat(feed.changes()).extracting(ChangeDTO::cursor).isSorted().doesNotHaveDuplicates();
+
+		// Os dados são o estado atual; o livro excluído aparece só como marcador.
+		assertThat(feed.changes().get(0).dados()).isInstanceOfSatisfying(BookSummary.class,
+				summary -> assertThat(summary.titulo()).isEqualTo("Dom Casmurro (edição revista)"));
+		assertThat(feed.changes().get(2).dados()).isNull();
+		assertThat(feed.changes().get(3).dados()).isNull();
+
+		mockMvc.perform(get("/changes").param("since", String.valueOf(start)).param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.changes.length()").value(2))
+				.andExpect(jsonPath("$.changes[0].tipo").value("LIVRO"))
+				.andExpect(jsonPath("$.changes[0].dados.id").value(id))
+				.andExpect(jsonPath("$.cursor").value(feed.changes().get(1).cursor()))
+				.andExpect(jsonPath("$.hasMore").value(true));
+		mockMvc.perform(get("/changes").param("since", String.valueOf(feed.cursor())))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.changes").isEmpty())
+				.andExpect(jsonPath("$.cursor").value(feed.cursor()))
+				.andExpect(jsonPath("$.hasMore").value(false));
+	}
+
+	@Test
+	void transactionCommittedLaterIsNotSkippedByTheCursor() throws Exception {
+		Long slow = bookService.createBook(book("Lento")).getId();
+		Long fast = bookService.createBook(book("Rápido")).getId();
+		long afterCreation = drain(start).cursor();
+
+		// A alteração de "Lento" é gravada primeiro, mas a transação só termina depois da de "Rápido".
+		CountDownLatch recorded = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> slowUpdate = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+			changeFeedService.record(ChangeLogEntry.Tipo.LIVRO, slow, ChangeLogEntry.Operacao.ATUALIZADO);
+			recorded.countDown();
+			await(release);
+		}));
+		assertThat(recorded.await(10, TimeUnit.SECONDS)).isTrue();
+		bookService.updateBook(fast, book("Rápido (2ª edição)"), null);
+
+		ChangeFeedDTO first = drain(afterCreation);
+		assertThat(first.changes()).extracting(ChangeDTO::id).containsExactly(fast);
+
+		release.countDown();
+		slowUpdate.get(10, TimeUnit.SECONDS);
+
+		ChangeFeedDTO second = drain(first.cursor());
+		assertThat(second.changes()).extracting(ChangeDTO::id).containsExactly(slow);
+		assertThat(second.cursor()).isGreaterThan(first.cursor());
+	}
+
+	/**
+	 * Sequencia o que estiver pendente e lê o feed até o fim a partir de {@code since}.
+	 */
+	private ChangeFeedDTO drain(long since) {
+		changeFeedService.sequence();
+		ChangeFeedDTO page = changeFeedService.getChanges(since, BookService.MAX_PAGE_SIZE);
+		List<ChangeDTO> changes = new ArrayList<>(page.changes());
+		while (page.hasMore()) {
+			page = changeFeedService.getChanges(page.cursor(), BookService.MAX_PAGE_SIZE);
+			changes.addAll(page.changes());
+		}
+		return new ChangeFeedDTO(changes, page.cursor(), false);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private BookDTO book(String titulo) {
+		BookDTO dto = new BookDTO();
+		dto.setTitulo(titulo);
+		dto.setPaginas(100);
+		dto.setDisponivel(true);
+		dto.setDataPublicacao(LocalDate.of(1900, 1, 1));
+		dto.setAuthorIds(List.of(author.getId()));
+		return dto;
+	}
+}
@@ -0,0 +1,108 @@
+package com.biblioteca.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Leituras simultâneas juntadas numa única carga, micro-cache limitado pela janela e pela geração dos dados,
+ * e falhas que não ficam guardadas.
+ */
+class SingleFlightTests {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final AtomicLong generation = new AtomicLong();
+
+	@Test
+	void concurrentReadsShareOneLoad() throws Exception {
+		SingleFlight<Long, String> reads = new SingleFlight<>("book", Duration.ZERO, generation::get, meterRegistry);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		int readers = 50;
+
+		ExecutorService pool = Executors.newFixedThreadPool(readers);
+		List<Future<String>> results = new ArrayList<>();
+		results.add(pool.submit(() -> reads.get(1L, () -> {
+			loads.incrementAndGet();
+			loading.countDown();
+			await(release);
+			return "Dom Casmurro";
+		})));
+		assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+		for (int i = 1; i < readers; i++) {
+			results.add(pool.submit(() -> reads.get(1L, () -> {
+				loads.incrementAndGet();
+				return "outra carga";
+			})));
+		}
+		// Espera os demais leitores chegarem à carga em andamento antes de liberá-la.
+		for (int i = 0; i < 100 && count("coalesced") < readers - 1; i++) {
+			Thread.sleep(20);
+		}
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("Dom Casmurro");
+		}
+		pool.shutdown();
+		assertThat(loads).hasValue(1);
+		assertThat(count("loaded")).isEqualTo(1);
+		assertThat(count("coalesced")).isEqualTo(readers - 1);
+
+		// Sem janela, a próxima leitura já vai ao banco.
+		assertThat(reads.get(1L, () -> "recarregado")).isEqualTo("recarregado");
+	}
+
+	@Test
+	void resultIsReusedWithinWindowUntilGenerationChanges() {
+		SingleFlight<Long, String> reads = new SingleFlight<>("book", Duration.ofMinutes(1), generation::get, meterRegistry);
+
+		assertThat(reads.get(1L, () -> "v1")).isEqualTo("v1");
+		assertThat(reads.get(1L, () -> "v2")).isEqualTo("v1");
+		assertThat(reads.get(2L, () -> "outro livro")).isEqualTo("outro livro");
+		assertThat(count("cached")).isEqualTo(1);
+
+		generation.incrementAndGet();
+		assertThat(reads.get(1L, () -> "v2")).isEqualTo("v2");
+		assertThat(count("loaded")).isEqualTo(3);
+	}
+
+	@Test
+	void failuresAreNotCached() {
+		SingleFlight<Long, String> reads = new SingleFlight<>("book", Duration.ofMinutes(1), generation::get, meterRegistry);
+
+		assertThatThrownBy(() -> reads.get(1L, () -> {
+			throw new IllegalStateException("banco indisponível");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(reads.get(1L, () -> "Dom Casmurro")).isEqualTo("Dom Casmurro");
+	}
+
+	private double count(String result) {
+		return meterRegistry.get("biblioteca.reads").tag("entity", "book").tag("result", result).counter().count();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
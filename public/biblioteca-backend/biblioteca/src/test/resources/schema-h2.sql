@@ -0,0 +1,2 @@
+-- Funções do PostgreSQL usadas em consultas nativas e ausentes no H2
+CREATE ALIAS IF NOT EXISTS convert_to FOR 'com.biblioteca.H2Functions.convertTo';
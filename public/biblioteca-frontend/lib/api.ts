@@ -2,10 +2,22 @@ import type { Book } from "./types"
 
 const API_URL = "/api/books"
 
+// Maior página aceita pela listagem do backend
+const PAGE_SIZE = 500
+
+// A listagem é paginada por cursor: segue X-Next-Cursor até a última página.
 export async function getAllBooks(): Promise<Book[]> {
-  const response = await fetch(API_URL, { cache: "no-store" })
-  if (!response.ok) throw new Error("Falha ao carregar livros")
-  return response.json()
+  const books: Book[] = []
+  let after: string | null = null
+  do {
+    const params = new URLSearchParams({ limit: String(PAGE_SIZE) })
+    if (after) params.set("after", after)
+    const response = await fetch(`${API_URL}?${params}`, { cache: "no-store" })
+    if (!response.ok) throw new Error("Falha ao carregar livros")
+    books.push(...(await response.json()))
+    after = response.headers.get("X-Next-Cursor")
+  } while (after)
+  return books
 }
 
 export async function getBookById(id: number): Promise<Book> {
@@ -33,7 +33,7 @@ export class BookFormComponent implements OnInit {
       titulo: ['', [Validators.required, Validators.minLength(2), Validators.maxLength(255)]],
       authorIds: [[], Validators.required], 
       paginas: ['', [Validators.required, Validators.min(1), Validators.max(10000)]],
-      disponivel: [true, Validators.required],
+      exemplares: [1, [Validators.required, Validators.min(0)]],
       dataPublicacao: ['', Validators.required]
     });
   }
@@ -68,7 +68,7 @@ export class BookFormComponent implements OnInit {
           this.bookForm.patchValue({
             titulo: book.titulo,
             paginas: book.paginas,
-            disponivel: book.disponivel,
+            exemplares: book.exemplares,
             dataPublicacao: book.dataPublicacao
           });
           
@@ -112,7 +112,7 @@ export class BookFormComponent implements OnInit {
         titulo: formValue.titulo,
         authorIds: formValue.authorIds,
         paginas: formValue.paginas,
-        disponivel: formValue.disponivel,
+        exemplares: formValue.exemplares,
         dataPublicacao: formValue.dataPublicacao
       };
 
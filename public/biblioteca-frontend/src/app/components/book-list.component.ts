@@ -147,6 +147,9 @@ export class BookListComponent implements OnInit {
    * @returns Uma string com os nomes dos autores separados por vírgula.
    */
   getAuthorNames(book: Book): string {
+    if (book.autor) {
+      return book.autor;
+    }
     if (book.authorIds && book.authorIds.length > 0) {
       return book.authorIds.map(id => this.authors.find(a => a.id === id)?.name || 'Autor Desconhecido').join(', ');
     }
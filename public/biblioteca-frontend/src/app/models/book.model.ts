@@ -9,8 +9,15 @@ export interface Book {
   titulo: string;
   authorIds: number[];
   paginas: number;
-  disponivel: boolean;
+  /** Calculado pelo backend (há exemplar não emprestado); o formulário envia só exemplares. */
+  disponivel?: boolean;
+  /** Total de exemplares (1 se omitido na criação). */
+  exemplares?: number;
+  /** Exemplares não emprestados; alterado só por empréstimos e devoluções. */
+  exemplaresDisponiveis?: number;
   dataPublicacao: string;
   pdfPath?: string;
+  /** Nomes dos autores separados por vírgula (enviado nas listagens e na busca). */
+  autor?: string;
 }
 
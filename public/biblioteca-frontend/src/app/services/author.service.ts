@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient, HttpHeaders } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Author } from '../models/author.model';
+import { fetchAllPages } from './paging';
 
 @Injectable({
   providedIn: 'root'
@@ -11,8 +12,9 @@ export class AuthorService {
 
   constructor(private http: HttpClient) { }
 
+  // A listagem é paginada; percorre todas as páginas.
   getAllAuthors(): Observable<Author[]> {
-    return this.http.get<Author[]>(this.apiUrl);
+    return fetchAllPages<Author>(this.http, this.apiUrl);
   }
 
   getAuthorById(id: number): Observable<Author> {
@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient, HttpHeaders } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Book } from '../models/book.model';
+import { fetchAllPages } from './paging';
 
 /**
  * Serviço responsável por fazer as requisições HTTP para a API do backend.
@@ -22,11 +23,11 @@ export class BookService {
   constructor(private http: HttpClient) { }
 
   /**
-   * Busca todos os livros cadastrados.
+   * Busca todos os livros cadastrados, percorrendo as páginas da listagem.
    * @returns Observable com array de livros
    */
   getAllBooks(): Observable<Book[]> {
-    return this.http.get<Book[]>(this.apiUrl);
+    return fetchAllPages<Book>(this.http, this.apiUrl);
   }
 
   /**
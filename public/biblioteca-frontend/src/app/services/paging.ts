@@ -0,0 +1,28 @@
+import { HttpClient, HttpResponse } from '@angular/common/http';
+import { EMPTY, Observable } from 'rxjs';
+import { expand, map, reduce } from 'rxjs/operators';
+
+/** Maior página aceita pelas listagens do backend. */
+export const PAGE_SIZE = 500;
+
+/**
+ * Busca todas as páginas de uma listagem paginada por cursor.
+ * Enquanto a resposta trouxer o cabeçalho X-Next-Cursor, pede a página seguinte com `after`.
+ * @param http Cliente HTTP
+ * @param url URL da listagem
+ * @returns Observable com os itens de todas as páginas, emitido uma vez ao final
+ */
+export function fetchAllPages<T>(http: HttpClient, url: string): Observable<T[]> {
+  const page = (after?: string) => http.get<T[]>(url, {
+    params: after ? { after, limit: PAGE_SIZE } : { limit: PAGE_SIZE },
+    observe: 'response'
+  });
+  return page().pipe(
+    expand((response: HttpResponse<T[]>) => {
+      const next = response.headers.get('X-Next-Cursor');
+      return next ? page(next) : EMPTY;
+    }),
+    map((response: HttpResponse<T[]>) => response.body ?? []),
+    reduce((all: T[], items: T[]) => all.concat(items), [] as T[])
+  );
+}